@@ -0,0 +1,95 @@
+package com.example.health_care_system.benchmark;
+
+import com.example.health_care_system.dto.AvailableSlot;
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.model.Doctor;
+import com.example.health_care_system.service.AppointmentReadModelService;
+import com.example.health_care_system.service.AppointmentService;
+import com.example.health_care_system.service.DoctorService;
+import com.example.health_care_system.service.SlotAvailabilityIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentServiceBenchmark {
+
+    @Param({"20"})
+    public int doctors;
+
+    @Param({"500"})
+    public int slotsPerDoctor;
+
+    private AppointmentService appointmentService;
+    private DoctorService doctorService;
+    private final List<String> doctorIds = new ArrayList<>();
+    private final List<AppointmentSlot> slots = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryAppointmentSlotRepository slotRepository = new InMemoryAppointmentSlotRepository();
+        InMemoryAppointmentRepository appointmentRepository = new InMemoryAppointmentRepository();
+        InMemoryDoctorRepository doctorRepository = new InMemoryDoctorRepository();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int d = 0; d < doctors; d++) {
+            String doctorId = "doctor-" + d;
+            Doctor doctor = new Doctor("Doctor " + d, "General");
+            doctor.setId(doctorId);
+            doctorRepository.save(doctor);
+            doctorIds.add(doctorId);
+            for (int s = 0; s < slotsPerDoctor; s++) {
+                LocalDateTime slotStart = start.plusMinutes(30L * s);
+                slots.add(slotRepository.save(new AppointmentSlot(slotStart, slotStart.plusMinutes(30), false, doctorId)));
+            }
+        }
+
+        SlotAvailabilityIndex availabilityIndex = new SlotAvailabilityIndex(slotRepository);
+        ReflectionTestUtils.setField(availabilityIndex, "maxAge", Duration.ofHours(1));
+        DoctorService doctorService = new DoctorService(doctorRepository);
+        ReflectionTestUtils.setField(doctorService, "maxSize", 10_000);
+        ReflectionTestUtils.setField(doctorService, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.invokeMethod(doctorService, "initCaches");
+        AppointmentReadModelService readModel = new AppointmentReadModelService(new InMemoryPatientAppointmentRepository(),
+                appointmentRepository, slotRepository, doctorService);
+        appointmentService = new AppointmentService(appointmentRepository, slotRepository, availabilityIndex,
+                readModel, event -> { }, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(appointmentService, "defaultEarliestLimit", 10);
+        ReflectionTestUtils.setField(appointmentService, "maxEarliestLimit", 100);
+        this.doctorService = doctorService;
+        // warm the index so getAvailableSlots measures the steady state
+        doctorIds.forEach(appointmentService::getAvailableSlots);
+    }
+
+    @Benchmark
+    public Appointment bookAndCancel() {
+        AppointmentSlot slot = slots.get(ThreadLocalRandom.current().nextInt(slots.size()));
+        Appointment appointment = appointmentService.bookAppointment("patient-1", slot.getId());
+        appointmentService.cancelAppointment(appointment.getId());
+        return appointment;
+    }
+
+    @Benchmark
+    public List<AppointmentSlot> getAvailableSlots() {
+        return appointmentService.getAvailableSlots(doctorIds.get(ThreadLocalRandom.current().nextInt(doctorIds.size())));
+    }
+
+    @Benchmark
+    public List<AvailableSlot> getEarliestAvailableSlots() {
+        return appointmentService.getEarliestAvailableSlots(doctorService.getDoctorsBySpecialization("General"),
+                null, null, 10);
+    }
+}
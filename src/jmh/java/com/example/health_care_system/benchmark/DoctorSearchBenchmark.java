@@ -0,0 +1,51 @@
+package com.example.health_care_system.benchmark;
+
+import com.example.health_care_system.model.Doctor;
+import com.example.health_care_system.service.DoctorSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoctorSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Anna", "Andrew", "Maria", "James", "Olivia", "Noah", "Sofia", "Liam"};
+    private static final String[] LAST_NAMES = {"Smith", "Müller", "Garcia", "Chen", "Okafor", "Novak", "Rossi", "Khan"};
+    private static final String[] SPECIALIZATIONS = {"Cardiology", "Dermatology", "Neurology", "Pediatrics",
+            "Orthopedics", "Oncology", "Psychiatry", "General Practice"};
+
+    @Param({"5000"})
+    public int doctors;
+
+    private DoctorSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Doctor> all = new ArrayList<>(doctors);
+        for (int i = 0; i < doctors; i++) {
+            Doctor doctor = new Doctor("Dr. " + FIRST_NAMES[i % FIRST_NAMES.length] + " "
+                    + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + " " + i,
+                    SPECIALIZATIONS[i % SPECIALIZATIONS.length]);
+            doctor.setId("doctor-" + i);
+            all.add(doctor);
+        }
+        index = DoctorSearchIndex.of(all);
+    }
+
+    @Benchmark
+    public DoctorSearchIndex.Result selectivePrefix() {
+        return index.search("ann mul", 0, 20);
+    }
+
+    @Benchmark
+    public DoctorSearchIndex.Result broadPrefix() {
+        return index.search("card", 0, 20);
+    }
+}
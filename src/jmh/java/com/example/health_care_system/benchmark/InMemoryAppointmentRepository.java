@@ -0,0 +1,69 @@
+package com.example.health_care_system.benchmark;
+
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.repository.AppointmentRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+class InMemoryAppointmentRepository extends InMemoryMongoRepository<Appointment> implements AppointmentRepository {
+
+    private static final Comparator<Appointment> NEWEST_FIRST =
+            Comparator.comparing(Appointment::getCreatedAt).thenComparing(Appointment::getId).reversed();
+
+    InMemoryAppointmentRepository() {
+        super(Appointment::getId, Appointment::setId);
+    }
+
+    @Override
+    public List<Appointment> findByPatientId(String patientId) {
+        return values().filter(appointment -> patientId.equals(appointment.getPatientId())).toList();
+    }
+
+    @Override
+    public boolean existsBySlotId(String slotId) {
+        return values().anyMatch(appointment -> slotId.equals(appointment.getSlotId()));
+    }
+
+    @Override
+    public Stream<Appointment> findByPatientIdOrderByCreatedAtDescIdDesc(String patientId) {
+        return findByPatientId(patientId).stream().sorted(NEWEST_FIRST);
+    }
+
+    @Override
+    public Stream<Appointment> streamAllBy() {
+        return values();
+    }
+
+    @Override
+    public List<Appointment> findPatientPage(String patientId, LocalDateTime afterCreatedAt, String afterId, int limit) {
+        return findByPatientIdOrderByCreatedAtDescIdDesc(patientId)
+                .filter(appointment -> afterCreatedAt == null
+                        || appointment.getCreatedAt().isBefore(afterCreatedAt)
+                        || (appointment.getCreatedAt().isEqual(afterCreatedAt) && appointment.getId().compareTo(afterId) < 0))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public long cancelAll(Collection<String> appointmentIds) {
+        long cancelled = 0;
+        for (String id : appointmentIds) {
+            Appointment appointment = store.get(id);
+            if (appointment != null && !"CANCELLED".equals(appointment.getStatus())) {
+                appointment.setStatus("CANCELLED");
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    // the join needs the slots collection; reconciliation is not benchmarked
+    @Override
+    public List<SlotLink> scanSlotLinks(String afterId, int limit) {
+        throw new UnsupportedOperationException();
+    }
+}
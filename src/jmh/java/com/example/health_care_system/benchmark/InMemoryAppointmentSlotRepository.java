@@ -0,0 +1,147 @@
+package com.example.health_care_system.benchmark;
+
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+class InMemoryAppointmentSlotRepository extends InMemoryMongoRepository<AppointmentSlot>
+        implements AppointmentSlotRepository {
+
+    InMemoryAppointmentSlotRepository() {
+        super(AppointmentSlot::getId, AppointmentSlot::setId);
+    }
+
+    @Override
+    public List<AppointmentSlot> findByDoctorIdAndBookedFalseAndStartTimeGreaterThanEqual(String doctorId,
+                                                                                         LocalDateTime from) {
+        return values().filter(slot -> doctorId.equals(slot.getDoctorId()) && !slot.isBooked() && startsAtOrAfter(slot, from))
+                .toList();
+    }
+
+    @Override
+    public List<AppointmentSlot> findByDoctorIdInAndBookedFalseAndStartTimeGreaterThanEqual(Collection<String> doctorIds,
+                                                                                           LocalDateTime from) {
+        return values().filter(slot -> doctorIds.contains(slot.getDoctorId()) && !slot.isBooked() && startsAtOrAfter(slot, from))
+                .toList();
+    }
+
+    private static boolean startsAtOrAfter(AppointmentSlot slot, LocalDateTime from) {
+        return slot.getStartTime() != null && !slot.getStartTime().isBefore(from);
+    }
+
+    @Override
+    public List<AppointmentSlot> findByHoldExpiresAtBefore(LocalDateTime expiresAt, Pageable pageable) {
+        return values().filter(slot -> slot.getHoldExpiresAt() != null && slot.getHoldExpiresAt().isBefore(expiresAt))
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    @Override
+    public List<AppointmentSlot> findByHoldExpiresAtAfter(LocalDateTime expiresAt) {
+        return values().filter(slot -> slot.getHoldExpiresAt() != null && slot.getHoldExpiresAt().isAfter(expiresAt))
+                .toList();
+    }
+
+    @Override
+    public long countByHeldByAndHoldExpiresAtAfter(String patientId, LocalDateTime now) {
+        return values().filter(slot -> patientId.equals(slot.getHeldBy())
+                && slot.getHoldExpiresAt() != null && slot.getHoldExpiresAt().isAfter(now)).count();
+    }
+
+    @Override
+    public synchronized AppointmentSlot claimSlot(String slotId, String appointmentId) {
+        AppointmentSlot slot = store.get(slotId);
+        if (slot == null || slot.isBooked()) {
+            return null;
+        }
+        slot.setBooked(true);
+        slot.setAppointmentId(appointmentId);
+        return slot;
+    }
+
+    @Override
+    public synchronized AppointmentSlot releaseSlot(String slotId, String appointmentId) {
+        AppointmentSlot slot = store.get(slotId);
+        if (slot == null || (slot.getAppointmentId() != null && !Objects.equals(slot.getAppointmentId(), appointmentId))) {
+            return null;
+        }
+        slot.setBooked(false);
+        slot.setAppointmentId(null);
+        return slot;
+    }
+
+    @Override
+    public int claimSlots(Map<String, String> appointmentIdsBySlotId) {
+        int claimed = 0;
+        for (Map.Entry<String, String> entry : appointmentIdsBySlotId.entrySet()) {
+            if (claimSlot(entry.getKey(), entry.getValue()) != null) {
+                claimed++;
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public int releaseSlots(Map<String, String> appointmentIdsBySlotId) {
+        int released = 0;
+        for (Map.Entry<String, String> entry : appointmentIdsBySlotId.entrySet()) {
+            if (releaseSlot(entry.getKey(), entry.getValue()) != null) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    @Override
+    public synchronized AppointmentSlot holdSlot(String slotId, String holdId, String patientId, LocalDateTime expiresAt) {
+        AppointmentSlot slot = claimSlot(slotId, holdId);
+        if (slot != null) {
+            slot.setHeldBy(patientId);
+            slot.setHoldExpiresAt(expiresAt);
+        }
+        return slot;
+    }
+
+    @Override
+    public synchronized AppointmentSlot confirmHold(String slotId, String holdId, String patientId, LocalDateTime now) {
+        AppointmentSlot slot = store.get(slotId);
+        if (slot == null || !holdId.equals(slot.getAppointmentId()) || !patientId.equals(slot.getHeldBy())
+                || slot.getHoldExpiresAt() == null || !slot.getHoldExpiresAt().isAfter(now)) {
+            return null;
+        }
+        slot.setHeldBy(null);
+        slot.setHoldExpiresAt(null);
+        return slot;
+    }
+
+    @Override
+    public synchronized AppointmentSlot releaseHold(String slotId, String holdId) {
+        AppointmentSlot slot = store.get(slotId);
+        if (slot == null || !holdId.equals(slot.getAppointmentId()) || slot.getHoldExpiresAt() == null) {
+            return null;
+        }
+        slot.setBooked(false);
+        slot.setAppointmentId(null);
+        slot.setHeldBy(null);
+        slot.setHoldExpiresAt(null);
+        return slot;
+    }
+
+    @Override
+    public synchronized AppointmentSlot releaseHold(String slotId, String holdId, String patientId) {
+        AppointmentSlot slot = store.get(slotId);
+        return slot != null && patientId.equals(slot.getHeldBy()) ? releaseHold(slotId, holdId) : null;
+    }
+
+    // the join needs the appointments collection; reconciliation is not benchmarked
+    @Override
+    public List<SlotOwner> scanSlotOwners(String afterSlotId, int limit) {
+        throw new UnsupportedOperationException();
+    }
+}
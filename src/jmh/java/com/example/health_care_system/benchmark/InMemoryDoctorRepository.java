@@ -0,0 +1,11 @@
+package com.example.health_care_system.benchmark;
+
+import com.example.health_care_system.model.Doctor;
+import com.example.health_care_system.repository.DoctorRepository;
+
+class InMemoryDoctorRepository extends InMemoryMongoRepository<Doctor> implements DoctorRepository {
+
+    InMemoryDoctorRepository() {
+        super(Doctor::getId, Doctor::setId);
+    }
+}
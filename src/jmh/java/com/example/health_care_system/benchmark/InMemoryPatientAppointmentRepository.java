@@ -0,0 +1,50 @@
+package com.example.health_care_system.benchmark;
+
+import com.example.health_care_system.model.PatientAppointment;
+import com.example.health_care_system.repository.PatientAppointmentRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+class InMemoryPatientAppointmentRepository extends InMemoryMongoRepository<PatientAppointment>
+        implements PatientAppointmentRepository {
+
+    InMemoryPatientAppointmentRepository() {
+        super(PatientAppointment::getId, PatientAppointment::setId);
+    }
+
+    @Override
+    public List<PatientAppointment> findByPatientIdOrderByStartTimeDesc(String patientId) {
+        return values().filter(view -> patientId.equals(view.getPatientId()))
+                .sorted(Comparator.comparing(PatientAppointment::getStartTime,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .toList();
+    }
+
+    @Override
+    public long deleteBySyncedAtBefore(LocalDateTime syncedAt) {
+        List<String> ids = values().filter(view -> view.getSyncedAt().isBefore(syncedAt))
+                .map(PatientAppointment::getId)
+                .toList();
+        ids.forEach(store::remove);
+        return ids.size();
+    }
+
+    @Override
+    public boolean updateStatus(String appointmentId, String status) {
+        PatientAppointment view = store.get(appointmentId);
+        if (view == null) {
+            return false;
+        }
+        view.setStatus(status);
+        view.setSyncedAt(LocalDateTime.now());
+        return true;
+    }
+
+    @Override
+    public long updateStatuses(Collection<String> appointmentIds, String status) {
+        return appointmentIds.stream().filter(id -> updateStatus(id, status)).count();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.health_care_system.benchmark;
+
+import com.example.health_care_system.model.User;
+import com.example.health_care_system.repository.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+class InMemoryUserRepository extends InMemoryMongoRepository<User> implements UserRepository {
+
+    InMemoryUserRepository() {
+        super(User::getId, User::setId);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return values().filter(user -> username.equals(user.getUsername())).findFirst();
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return values().filter(user -> email.equals(user.getEmail())).findFirst();
+    }
+
+    @Override
+    public List<User> findByUsernameOrEmail(String username, String email) {
+        return values().filter(user -> username.equals(user.getUsername()) || email.equals(user.getEmail())).toList();
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return findByUsername(username).isPresent();
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return findByEmail(email).isPresent();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.health_care_system.benchmark;
+
+import com.example.health_care_system.model.PasswordResetToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordResetTokenBenchmark {
+
+    private PasswordResetToken token;
+
+    @Setup
+    public void setUp() {
+        token = new PasswordResetToken(UUID.randomUUID().toString(), "user@example.com");
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return token.isValid();
+    }
+}
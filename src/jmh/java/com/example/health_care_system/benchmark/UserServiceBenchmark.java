@@ -0,0 +1,93 @@
+package com.example.health_care_system.benchmark;
+
+import com.example.health_care_system.config.BoundedPasswordEncoder;
+import com.example.health_care_system.dto.LoginDto;
+import com.example.health_care_system.dto.UserRegistrationDto;
+import com.example.health_care_system.model.User;
+import com.example.health_care_system.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final String PASSWORD = "s3cret-password";
+
+    @Param({"1000"})
+    public int users;
+
+    private UserService userService;
+    private BoundedPasswordEncoder passwordEncoder;
+    private final AtomicLong registrations = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        passwordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(),
+                Runtime.getRuntime().availableProcessors(), 1024, Duration.ofSeconds(30));
+
+        String hash = passwordEncoder.encode(PASSWORD);
+        for (int i = 0; i < users; i++) {
+            userRepository.save(new User("user" + i, "user" + i + "@example.com", hash, "First", "Last"));
+        }
+
+        userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(userService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userService, "cacheMaxSize", 10_000);
+        ReflectionTestUtils.setField(userService, "cacheTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.invokeMethod(userService, "initCaches");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Benchmark
+    public User authenticateByUsername() throws Exception {
+        return userService.authenticateUser(login("user" + (users / 2)));
+    }
+
+    @Benchmark
+    public User authenticateByEmail() throws Exception {
+        return userService.authenticateUser(login("user" + (users / 2) + "@example.com"));
+    }
+
+    @Benchmark
+    public User findByUsernameCached() {
+        return userService.findByUsername("user" + (users / 2));
+    }
+
+    @Benchmark
+    public User registerUser() throws Exception {
+        long n = registrations.incrementAndGet();
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername("new" + n);
+        dto.setEmail("new" + n + "@example.com");
+        dto.setPassword(PASSWORD);
+        dto.setConfirmPassword(PASSWORD);
+        dto.setFirstName("First");
+        dto.setLastName("Last");
+        return userService.registerUser(dto);
+    }
+
+    private static LoginDto login(String usernameOrEmail) {
+        LoginDto dto = new LoginDto();
+        dto.setUsernameOrEmail(usernameOrEmail);
+        dto.setPassword(PASSWORD);
+        return dto;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.health_care_system.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for a running instance. New patients arrive as a Poisson process
+ * at a fixed rate, independent of how fast the server answers, so a slow server builds up a
+ * backlog instead of quietly slowing the generator down. Each patient runs
+ * {@link PatientScenario} on its own virtual thread.
+ *
+ * <p>Each rate in {@code --rates} is one stage. A stage generates arrivals for
+ * {@code --stage-duration}, waits for its patients to finish and then prints throughput and
+ * latency percentiles per step. Options (all {@code --name=value}):
+ * base-url, rates (patients per second, comma separated), stage-duration, think-time,
+ * request-timeout, drain-timeout, max-sessions and csv.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        URI baseUrl = URI.create(options.getOrDefault("base-url", "http://localhost:8080"));
+        double[] rates = Arrays.stream(options.getOrDefault("rates", "1,2,5").split(","))
+                .mapToDouble(rate -> Double.parseDouble(rate.trim()))
+                .toArray();
+        Duration stageDuration = Duration.parse(options.getOrDefault("stage-duration", "PT1M"));
+        Duration thinkTime = Duration.parse(options.getOrDefault("think-time", "PT0.5S"));
+        Duration requestTimeout = Duration.parse(options.getOrDefault("request-timeout", "PT10S"));
+        Duration drainTimeout = Duration.parse(options.getOrDefault("drain-timeout", "PT1M"));
+        int maxSessions = Integer.parseInt(options.getOrDefault("max-sessions", "5000"));
+        String csv = options.get("csv");
+
+        // unique usernames per run, and short enough for the 20 character limit
+        String runId = Long.toString(System.currentTimeMillis() / 1000 % 2_176_782_336L, 36);
+        PatientScenario scenario = new PatientScenario(runId, thinkTime);
+        HttpClient client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(requestTimeout)
+                .build();
+
+        System.out.printf("Load test against %s, run %s%n", baseUrl, runId);
+        List<String> rows = new ArrayList<>();
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            AtomicLong patients = new AtomicLong();
+            for (int i = 0; i < rates.length; i++) {
+                Stage stage = new Stage(rates[i], stageDuration);
+                stage.run(() -> {
+                    Browser browser = new Browser(client, baseUrl, requestTimeout);
+                    scenario.run(browser, stage.stats, patients.incrementAndGet());
+                }, sessions, maxSessions, drainTimeout);
+                System.out.printf("%nStage %d/%d: %s%n", i + 1, rates.length, stage.summary());
+                System.out.print(stage.report());
+                rows.addAll(stage.csvRows());
+            }
+        }
+
+        if (csv != null) {
+            writeCsv(Path.of(csv), rows);
+            System.out.printf("%nResults written to %s%n", csv);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private static void writeCsv(Path path, List<String> rows) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path))) {
+            out.println("rate,step,count,errors,throughput,p50_ms,p95_ms,p99_ms,max_ms");
+            rows.forEach(out::println);
+        }
+    }
+
+    private static final class Stage {
+
+        private final double rate;
+        private final Duration duration;
+        private final Map<PatientScenario.Step, StepStats> stats = new EnumMap<>(PatientScenario.Step.class);
+        private final LongAdder aborted = new LongAdder();
+        private long started;
+        private long dropped;
+        private boolean drained;
+        private double elapsedSeconds;
+
+        private Stage(double rate, Duration duration) {
+            this.rate = rate;
+            this.duration = duration;
+            for (PatientScenario.Step step : PatientScenario.Step.values()) {
+                stats.put(step, new StepStats());
+            }
+        }
+
+        private void run(Session session, ExecutorService executor, int maxSessions, Duration drainTimeout)
+                throws InterruptedException {
+            Semaphore inFlight = new Semaphore(maxSessions);
+            long start = System.nanoTime();
+            long end = start + duration.toNanos();
+            long next = start;
+            while (true) {
+                // exponential gaps between arrivals give a Poisson process at the target rate
+                next += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) / rate * 1e9);
+                if (next >= end) {
+                    break;
+                }
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // an arrival is never delayed; beyond max-sessions it is dropped and reported
+                if (!inFlight.tryAcquire()) {
+                    dropped++;
+                    continue;
+                }
+                started++;
+                executor.execute(() -> {
+                    try {
+                        session.run();
+                    } catch (Exception e) {
+                        aborted.increment();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            drained = inFlight.tryAcquire(maxSessions, drainTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (drained) {
+                inFlight.release(maxSessions);
+            }
+            elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        }
+
+        private String summary() {
+            return String.format(Locale.ROOT, "%.1f patients/s for %s, %d started, %d dropped, %d aborted%s",
+                    rate, duration, started, dropped, aborted.sum(), drained ? "" : ", NOT drained");
+        }
+
+        private String report() {
+            StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-13s %8s %8s %9s %9s %9s %9s %9s%n",
+                    "step", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+            stats.forEach((step, s) -> out.append(String.format(Locale.ROOT,
+                    "%-13s %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    step.label(), s.count(), s.errors(), s.count() / elapsedSeconds,
+                    s.percentileMillis(50), s.percentileMillis(95), s.percentileMillis(99), s.maxMillis())));
+            return out.toString();
+        }
+
+        private List<String> csvRows() {
+            List<String> rows = new ArrayList<>();
+            stats.forEach((step, s) -> rows.add(String.format(Locale.ROOT, "%s,%s,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f",
+                    rate, step.label(), s.count(), s.errors(), s.count() / elapsedSeconds,
+                    s.percentileMillis(50), s.percentileMillis(95), s.percentileMillis(99), s.maxMillis())));
+            return rows;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Session {
+        void run() throws Exception;
+    }
+}
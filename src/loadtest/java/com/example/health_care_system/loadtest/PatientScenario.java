@@ -0,0 +1,163 @@
+package com.example.health_care_system.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The flow of one new patient, the same requests the pages make: register, log in, open the
+ * appointment page, look up doctors and slots, book, then cancel again. A failed step ends
+ * the flow, since the later steps depend on it.
+ */
+class PatientScenario {
+
+    enum Step {
+        REGISTER, LOGIN, APPOINTMENTS, DOCTORS, SLOTS, BOOK, CANCEL;
+
+        String label() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final Pattern APPOINTMENT_ID = Pattern.compile("name=\"appointmentId\"\\s+value=\"([^\"]+)\"");
+    private static final String PASSWORD = "load-test-password";
+
+    // Patients mostly pick from the first slots offered, which is where bookings contend
+    private static final int SLOT_CHOICES = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String runId;
+    private final Duration thinkTime;
+
+    PatientScenario(String runId, Duration thinkTime) {
+        this.runId = runId;
+        this.thinkTime = thinkTime;
+    }
+
+    void run(Browser browser, Map<Step, StepStats> stats, long patient) throws IOException, InterruptedException {
+        String username = "lt" + runId + Long.toString(patient, 36);
+
+        if (measure(stats.get(Step.REGISTER), () -> browser.postForm("/register", Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", PASSWORD,
+                "confirmPassword", PASSWORD,
+                "firstName", "Load",
+                "lastName", "Test")), redirectTo("/register?success")) == null) {
+            return;
+        }
+        think();
+
+        // Spring Security's form login; a failed attempt redirects to /login?error
+        if (measure(stats.get(Step.LOGIN), () -> browser.postForm("/login", Map.of(
+                "username", username,
+                "password", PASSWORD)), response -> isRedirect(response) && !location(response).contains("error")) == null) {
+            return;
+        }
+        think();
+
+        if (measure(stats.get(Step.APPOINTMENTS), () -> browser.get("/appointments"), PatientScenario::isOk) == null) {
+            return;
+        }
+
+        HttpResponse<String> doctors = measure(stats.get(Step.DOCTORS),
+                () -> browser.get("/appointments/doctors/search?size=50"), PatientScenario::isOk);
+        if (doctors == null) {
+            return;
+        }
+        String doctorId = pick(objectMapper.readTree(doctors.body()).path("items"), Integer.MAX_VALUE);
+        if (doctorId == null) {
+            return;
+        }
+        think();
+
+        HttpResponse<String> slots = measure(stats.get(Step.SLOTS),
+                () -> browser.get("/appointments/slots/" + doctorId), PatientScenario::isOk);
+        if (slots == null) {
+            return;
+        }
+        String slotId = pick(objectMapper.readTree(slots.body()), SLOT_CHOICES);
+        if (slotId == null) {
+            return;
+        }
+        think();
+
+        // Losing a slot to another patient shows up as a book error
+        if (measure(stats.get(Step.BOOK), () -> browser.postForm("/appointments/book", Map.of(
+                "doctorId", doctorId,
+                "slotId", slotId)), redirectTo("/appointments?success")) == null) {
+            return;
+        }
+
+        HttpResponse<String> page = measure(stats.get(Step.APPOINTMENTS), () -> browser.get("/appointments"),
+                PatientScenario::isOk);
+        if (page == null) {
+            return;
+        }
+        Matcher appointment = APPOINTMENT_ID.matcher(page.body());
+        if (!appointment.find()) {
+            return;
+        }
+        think();
+
+        measure(stats.get(Step.CANCEL), () -> browser.postForm("/appointments/cancel", Map.of(
+                "appointmentId", appointment.group(1))), redirectTo("/appointments?canceled"));
+    }
+
+    private static HttpResponse<String> measure(StepStats stats, Request request,
+                                                Predicate<HttpResponse<String>> success) throws InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = request.send();
+        } catch (IOException e) {
+            // timeouts and refused connections count as errors of the step
+        }
+        boolean ok = response != null && success.test(response);
+        stats.record(System.nanoTime() - start, ok);
+        return ok ? response : null;
+    }
+
+    private void think() throws InterruptedException {
+        if (!thinkTime.isZero()) {
+            Thread.sleep(thinkTime);
+        }
+    }
+
+    private static String pick(JsonNode items, int firstN) {
+        int size = Math.min(items.size(), firstN);
+        if (size == 0) {
+            return null;
+        }
+        return items.get(ThreadLocalRandom.current().nextInt(size)).path("id").asText(null);
+    }
+
+    private static boolean isOk(HttpResponse<String> response) {
+        return response.statusCode() == 200;
+    }
+
+    private static boolean isRedirect(HttpResponse<String> response) {
+        return response.statusCode() == 302 || response.statusCode() == 303;
+    }
+
+    private static String location(HttpResponse<String> response) {
+        return response.headers().firstValue("Location").orElse("");
+    }
+
+    private static Predicate<HttpResponse<String>> redirectTo(String target) {
+        return response -> isRedirect(response) && location(response).endsWith(target);
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        HttpResponse<String> send() throws IOException, InterruptedException;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.health_care_system.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count for one step of the scenario within one stage.
+ */
+class StepStats {
+
+    private final Histogram latencyMicros = new ConcurrentHistogram(3);
+    private final LongAdder errors = new LongAdder();
+
+    void record(long nanos, boolean ok) {
+        latencyMicros.recordValue(Math.max(1, nanos / 1_000));
+        if (!ok) {
+            errors.increment();
+        }
+    }
+
+    long count() {
+        return latencyMicros.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double percentileMillis(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    double maxMillis() {
+        return latencyMicros.getMaxValue() / 1_000.0;
+    }
+}
@@ -2,11 +2,15 @@ package com.example.health_care_system;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.session.SessionAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-@SpringBootApplication
+// Session storage is selected explicitly by config.SessionConfig
+@SpringBootApplication(exclude = SessionAutoConfiguration.class)
+@EnableScheduling
 @Controller
 public class HealthCareSystemApplication {
 
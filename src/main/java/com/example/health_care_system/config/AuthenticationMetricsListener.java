@@ -0,0 +1,50 @@
+package com.example.health_care_system.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts form-login outcomes published by Spring Security, using the same
+ * {@code auth.logins} counter as {@code UserService.authenticateUser}. Failures caused by a
+ * saturated password hashing pool are published through the mapping in {@link SecurityConfig}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthenticationMetricsListener {
+
+    private final MeterRegistry meterRegistry;
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        record("success");
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        record(outcomeOf(event.getException()));
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("auth.logins", "source", "form", "outcome", outcome).increment();
+    }
+
+    private static String outcomeOf(AuthenticationException exception) {
+        if (exception instanceof BoundedPasswordEncoder.CapacityExceededException) {
+            return "rejected";
+        }
+        if (exception instanceof BadCredentialsException) {
+            return "invalid_credentials";
+        }
+        if (exception instanceof DisabledException) {
+            return "disabled";
+        }
+        return "error";
+    }
+}
@@ -1,15 +1,22 @@
 package com.example.health_care_system.config;
 
 import com.example.health_care_system.model.Doctor;
-import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.model.ScheduleTemplate;
+import com.example.health_care_system.model.ScheduleTemplate.TimeRange;
 import com.example.health_care_system.repository.DoctorRepository;
 import com.example.health_care_system.repository.AppointmentSlotRepository;
+import com.example.health_care_system.repository.ScheduleTemplateRepository;
+import com.example.health_care_system.service.SlotGenerationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.time.LocalDateTime;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Configuration
@@ -18,6 +25,11 @@ public class DataSeeder {
 
     private final DoctorRepository doctorRepository;
     private final AppointmentSlotRepository slotRepository;
+    private final ScheduleTemplateRepository templateRepository;
+    private final SlotGenerationService slotGenerationService;
+
+    @Value("${app.slots.generation.seed-days:28}")
+    private int seedDays;
 
     @Bean
     public CommandLineRunner seedData() {
@@ -28,16 +40,28 @@ public class DataSeeder {
                 doctorRepository.saveAll(List.of(doctor1, doctor2));
             }
 
+            if (templateRepository.count() == 0) {
+                List<ScheduleTemplate> templates = doctorRepository.findAll().stream()
+                        .map(doctor -> defaultTemplate(doctor.getId()))
+                        .toList();
+                templateRepository.saveAll(templates);
+            }
+
             if (slotRepository.count() == 0) {
-                List<Doctor> doctors = doctorRepository.findAll();
-                if (!doctors.isEmpty()) {
-                    AppointmentSlot slot1 = new AppointmentSlot(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(1), false, doctors.get(0).getId());
-                    AppointmentSlot slot2 = new AppointmentSlot(LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(2).plusHours(1), false, doctors.get(0).getId());
-                    AppointmentSlot slot3 = new AppointmentSlot(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(3).plusHours(1), false, doctors.get(1).getId());
-                    AppointmentSlot slot4 = new AppointmentSlot(LocalDateTime.now().plusDays(4), LocalDateTime.now().plusDays(4).plusHours(1), false, doctors.get(1).getId());
-                    slotRepository.saveAll(List.of(slot1, slot2, slot3, slot4));
-                }
+                LocalDate tomorrow = LocalDate.now().plusDays(1);
+                slotGenerationService.generateSlots(tomorrow, tomorrow.plusDays(seedDays - 1));
             }
         };
     }
+
+    // Weekdays 09:00-17:00 in 30 minute slots with a lunch break
+    private static ScheduleTemplate defaultTemplate(String doctorId) {
+        List<TimeRange> hours = new ArrayList<>();
+        for (DayOfWeek day : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                DayOfWeek.THURSDAY, DayOfWeek.FRIDAY)) {
+            hours.add(new TimeRange(day, LocalTime.of(9, 0), LocalTime.of(17, 0)));
+        }
+        List<TimeRange> breaks = List.of(new TimeRange(null, LocalTime.of(12, 0), LocalTime.of(13, 0)));
+        return new ScheduleTemplate(doctorId, 30, hours, new ArrayList<>(breaks));
+    }
 }
@@ -0,0 +1,68 @@
+package com.example.health_care_system.config;
+
+import com.example.health_care_system.cache.TtlCache;
+import com.example.health_care_system.service.DoctorService;
+import com.example.health_care_system.service.UserService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.function.Supplier;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder passwordEncoderMetrics(PasswordEncoder passwordEncoder) {
+        return registry -> {
+            if (!(passwordEncoder instanceof BoundedPasswordEncoder encoder)) {
+                return;
+            }
+            FunctionCounter.builder("auth.password.hash.submitted", encoder, BoundedPasswordEncoder::getSubmittedCount)
+                    .register(registry);
+            FunctionCounter.builder("auth.password.hash.rejected", encoder, BoundedPasswordEncoder::getRejectedCount)
+                    .register(registry);
+            FunctionCounter.builder("auth.password.hash.timed-out", encoder, BoundedPasswordEncoder::getTimedOutCount)
+                    .register(registry);
+            Gauge.builder("auth.password.hash.queue", encoder, BoundedPasswordEncoder::getQueueDepth)
+                    .register(registry);
+            Gauge.builder("auth.password.hash.active", encoder, BoundedPasswordEncoder::getActiveCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder doctorCacheMetrics(DoctorService doctorService) {
+        return registry -> {
+            bindCache(registry, "doctors", doctorService::getDoctorCacheStats);
+            bindCache(registry, "doctor-directory", doctorService::getDirectoryCacheStats);
+        };
+    }
+
+    @Bean
+    public MeterBinder userCacheMetrics(UserService userService) {
+        return registry -> {
+            bindCache(registry, "users", userService::getUserCacheStats);
+            bindCache(registry, "usernames", userService::getUsernameCacheStats);
+        };
+    }
+
+    static void bindCache(MeterRegistry registry, String name, Supplier<TtlCache.Stats> stats) {
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().hits())
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().misses())
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", stats, s -> s.get().evictions())
+                .tags("cache", name)
+                .register(registry);
+        Gauge.builder("cache.size", stats, s -> s.get().size())
+                .tags("cache", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.health_care_system.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the expensive anonymous form posts: {@code POST /login} (BCrypt)
+ * and {@code POST /forgot-password} (token write plus mail). Each is limited per client IP
+ * and per submitted account identifier; over-limit requests get 429 with Retry-After
+ * before any further work. Runs ahead of the Spring Security filter chain.
+ *
+ * <p>The client IP is {@code request.getRemoteAddr()}; behind a load balancer set
+ * {@code server.forward-headers-strategy} so it reflects the forwarded address.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.stripes:64}")
+    private int stripes;
+
+    @Value("${app.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${app.rate-limit.login.ip.capacity:20}")
+    private long loginIpCapacity;
+
+    @Value("${app.rate-limit.login.ip.period:PT1M}")
+    private Duration loginIpPeriod;
+
+    @Value("${app.rate-limit.login.account.capacity:5}")
+    private long loginAccountCapacity;
+
+    @Value("${app.rate-limit.login.account.period:PT1M}")
+    private Duration loginAccountPeriod;
+
+    @Value("${app.rate-limit.forgot-password.ip.capacity:5}")
+    private long forgotIpCapacity;
+
+    @Value("${app.rate-limit.forgot-password.ip.period:PT15M}")
+    private Duration forgotIpPeriod;
+
+    @Value("${app.rate-limit.forgot-password.account.capacity:3}")
+    private long forgotAccountCapacity;
+
+    @Value("${app.rate-limit.forgot-password.account.period:PT1H}")
+    private Duration forgotAccountPeriod;
+
+    private TokenBucketRateLimiter loginByIp;
+    private TokenBucketRateLimiter loginByAccount;
+    private TokenBucketRateLimiter forgotByIp;
+    private TokenBucketRateLimiter forgotByAccount;
+
+    @PostConstruct
+    void initLimiters() {
+        loginByIp = new TokenBucketRateLimiter(loginIpCapacity, loginIpPeriod, stripes, maxKeys);
+        loginByAccount = new TokenBucketRateLimiter(loginAccountCapacity, loginAccountPeriod, stripes, maxKeys);
+        forgotByIp = new TokenBucketRateLimiter(forgotIpCapacity, forgotIpPeriod, stripes, maxKeys);
+        forgotByAccount = new TokenBucketRateLimiter(forgotAccountCapacity, forgotAccountPeriod, stripes, maxKeys);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return !"/login".equals(path) && !"/forgot-password".equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean login = "/login".equals(request.getServletPath());
+        String endpoint = login ? "login" : "forgot-password";
+
+        long waitNanos = login ? loginByIp.tryAcquire(request.getRemoteAddr())
+                : forgotByIp.tryAcquire(request.getRemoteAddr());
+        String limitedBy = "ip";
+        if (waitNanos == 0) {
+            String account = login ? accountOf(request, "username", "usernameOrEmail") : accountOf(request, "email");
+            if (account != null) {
+                waitNanos = login ? loginByAccount.tryAcquire(account) : forgotByAccount.tryAcquire(account);
+                limitedBy = "account";
+            }
+        }
+
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        meterRegistry.counter("http.rate-limit.rejected", "endpoint", endpoint, "key", limitedBy).increment();
+        long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1; // rounded up
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests. Please try again in " + retryAfterSeconds + " seconds.");
+    }
+
+    private static String accountOf(HttpServletRequest request, String... parameters) {
+        for (String parameter : parameters) {
+            String value = request.getParameter(parameter);
+            if (value != null && !value.isBlank()) {
+                return value.trim().toLowerCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+}
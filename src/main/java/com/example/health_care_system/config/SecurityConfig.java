@@ -1,17 +1,44 @@
 package com.example.health_care_system.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationEventPublisher;
+import org.springframework.security.authentication.DefaultAuthenticationEventPublisher;
+import org.springframework.security.authentication.event.AuthenticationFailureServiceExceptionEvent;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.ExceptionMappingAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Map;
+
 @Configuration
 public class SecurityConfig {
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.threads:0}") int threads,
+                                           @Value("${app.security.password.queue-capacity:64}") int queueCapacity,
+                                           @Value("${app.security.password.timeout:PT5S}") Duration timeout) {
+        // 0 threads means one per available core
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity, timeout);
+    }
+
+    // The default mappings match exact exception classes, so the capacity failure needs its own
+    @Bean
+    public AuthenticationEventPublisher authenticationEventPublisher(ApplicationEventPublisher publisher) {
+        DefaultAuthenticationEventPublisher eventPublisher = new DefaultAuthenticationEventPublisher(publisher);
+        eventPublisher.setAdditionalExceptionMappings(Map.of(
+                BoundedPasswordEncoder.CapacityExceededException.class, AuthenticationFailureServiceExceptionEvent.class));
+        return eventPublisher;
     }
 
     @Bean
@@ -19,17 +46,49 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable()) // optional for development
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(EndpointRequest.to("health", "info")).permitAll()
+                        // metrics and anything else under /actuator, see app.security.admin-users
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
+                        .requestMatchers("/api/appointments/slots/generate").hasRole("ADMIN")
+                        .requestMatchers("/api/appointments/read-model/**").hasRole("ADMIN")
+                        .requestMatchers("/api/appointments/slots/reconcile").hasRole("ADMIN")
+                        .requestMatchers("/api/appointments/slots/*/hold", "/api/appointments/holds/**").authenticated()
                         .requestMatchers("/appointments/**").authenticated() // Require authentication for appointments
                         .anyRequest().permitAll()
                 )
                 .formLogin(form -> form
                         .loginPage("/login")
+                        .failureHandler(loginFailureHandler())
                         .permitAll()
                 )
+                // for non-browser clients such as the Prometheus scraper
+                .httpBasic(basic -> basic.authenticationEntryPoint(basicAuthenticationEntryPoint()))
                 .logout(logout -> logout
                         .logoutUrl("/logout")
                         .permitAll()
                 );
         return http.build();
     }
+
+    // A saturated password hashing pool asks the user to retry instead of reporting bad credentials
+    private static ExceptionMappingAuthenticationFailureHandler loginFailureHandler() {
+        ExceptionMappingAuthenticationFailureHandler handler = new ExceptionMappingAuthenticationFailureHandler();
+        handler.setDefaultFailureUrl("/login?error");
+        handler.setExceptionMappings(Map.of(
+                BoundedPasswordEncoder.CapacityExceededException.class.getName(), "/login?busy"));
+        return handler;
+    }
+
+    private static AuthenticationEntryPoint basicAuthenticationEntryPoint() {
+        BasicAuthenticationEntryPoint challenge = new BasicAuthenticationEntryPoint();
+        challenge.setRealmName("Realm");
+        return (request, response, exception) -> {
+            if (exception instanceof BoundedPasswordEncoder.CapacityExceededException) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage());
+            } else {
+                challenge.commence(request, response, exception);
+            }
+        };
+    }
 }
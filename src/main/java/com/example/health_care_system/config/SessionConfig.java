@@ -0,0 +1,32 @@
+package com.example.health_care_system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.SessionRepositoryCustomizer;
+import org.springframework.session.data.mongo.MongoIndexedSessionRepository;
+import org.springframework.session.data.mongo.config.annotation.web.http.EnableMongoHttpSession;
+
+import java.time.Duration;
+
+/**
+ * Session storage is chosen with {@code app.session.store}: {@code memory} (default) keeps
+ * sessions in the servlet container, {@code mongo} stores them in a shared collection so any
+ * node behind the load balancer can serve any session. Expired sessions are removed by a TTL index.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.session.store", havingValue = "mongo")
+@EnableMongoHttpSession
+public class SessionConfig {
+
+    @Bean
+    public SessionRepositoryCustomizer<MongoIndexedSessionRepository> mongoSessionCustomizer(
+            @Value("${app.session.mongodb.collection-name:sessions}") String collectionName,
+            @Value("${server.servlet.session.timeout:PT30M}") Duration timeout) {
+        return repository -> {
+            repository.setCollectionName(collectionName);
+            repository.setDefaultMaxInactiveInterval(timeout);
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.health_care_system.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets, one per key. Keys are spread over independently locked stripes
+ * so concurrent requests for different clients rarely contend, and each stripe is a small
+ * LRU map so the total number of tracked keys stays bounded. A bucket holds up to
+ * {@code capacity} tokens and refills continuously at {@code capacity} per {@code period}.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private final LongSupplier ticker;
+    private final Stripe[] stripes;
+
+    public TokenBucketRateLimiter(long capacity, Duration period, int stripes, int maxKeys) {
+        this(capacity, period, stripes, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(long capacity, Duration period, int stripes, int maxKeys, LongSupplier ticker) {
+        if (capacity <= 0 || period.isZero() || period.isNegative() || stripes <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity, period, stripes and maxKeys must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / period.toNanos();
+        this.ticker = ticker;
+        this.stripes = new Stripe[stripes];
+        int keysPerStripe = Math.max(1, maxKeys / stripes);
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(keysPerStripe);
+        }
+    }
+
+    /**
+     * Takes a token for {@code key}. Returns 0 when allowed, otherwise how many nanoseconds
+     * until the next token is available.
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripes[Math.floorMod(spread(key.hashCode()), stripes.length)];
+        long now = ticker.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * tokensPerNano);
+                bucket.refilledAt = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Stripe {
+        private final LinkedHashMap<String, Bucket> buckets;
+
+        private Stripe(int maxKeys) {
+            // least recently used buckets go first; an evicted key simply starts full again
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+}
@@ -1,15 +1,37 @@
 package com.example.health_care_system.controller;
 
+import com.example.health_care_system.dto.AppointmentPage;
+import com.example.health_care_system.dto.AvailableSlot;
+import com.example.health_care_system.dto.BookingResult;
+import com.example.health_care_system.dto.BulkBookingRequest;
+import com.example.health_care_system.dto.BulkCancelRequest;
+import com.example.health_care_system.dto.BulkMode;
+import com.example.health_care_system.dto.BulkOperationResult;
+import com.example.health_care_system.dto.DoctorSearchPage;
+import com.example.health_care_system.dto.ReconciliationReport;
+import com.example.health_care_system.dto.SlotGenerationReport;
+import com.example.health_care_system.dto.SlotHold;
 import com.example.health_care_system.model.Appointment;
 import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.service.AppointmentReadModelService;
 import com.example.health_care_system.service.AppointmentService;
 import com.example.health_care_system.model.Doctor;
 import com.example.health_care_system.model.User;
 import com.example.health_care_system.service.DoctorService;
+import com.example.health_care_system.service.SlotEventHub;
+import com.example.health_care_system.service.SlotGenerationService;
+import com.example.health_care_system.service.SlotHoldService;
+import com.example.health_care_system.service.SlotReconciliationService;
 import com.example.health_care_system.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -17,8 +39,17 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Controller
 @RequiredArgsConstructor
@@ -31,6 +62,12 @@ public class AppointmentController {
     private final DoctorService doctorService;
     @Autowired
     private final UserService userService;
+    @Autowired
+    private final AppointmentReadModelService appointmentReadModelService;
+    @Autowired
+    private final SlotEventHub slotEventHub;
+    @Autowired
+    private final SlotHoldService slotHoldService;
 
     // 🧭 1. Show the main appointment page
     @GetMapping()
@@ -38,25 +75,17 @@ public class AppointmentController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
         User user = userService.findByUsername(username);
-        List<Doctor> doctors = doctorService.getAllDoctors();
-        List<Appointment> appointments = List.of();
         List<AppointmentViewDto> appointmentViews = List.of();
         if (user != null) {
-            appointments = appointmentService.getAppointmentsByPatient(user.getId());
-            appointmentViews = appointments.stream().map(appt -> {
-                Doctor doc = doctorService.getDoctorById(appt.getDoctorId());
-                String doctorName = doc != null ? doc.getName() : appt.getDoctorId();
-                java.time.LocalDateTime slotTime = null;
-                // Optionally, fetch slot time if needed
-                return new AppointmentViewDto(
-                    appt.getId(),
-                    doctorName,
-                    appt.getStatus(),
-                    appt.getCreatedAt()
-                );
-            }).toList();
-        }
-        model.addAttribute("doctors", doctors);
+            // One indexed query on the read model, which already carries doctor and slot details
+            appointmentViews = appointmentReadModelService.getPatientAppointments(user.getId()).stream()
+                    .map(view -> new AppointmentViewDto(
+                            view.getId(),
+                            view.getDoctorName(),
+                            view.getStatus(),
+                            view.getStartTime()))
+                    .toList();
+        }
         model.addAttribute("slots", List.of());
         model.addAttribute("appointments", appointmentViews);
         model.addAttribute("activePage", "appointments");
@@ -66,15 +95,84 @@ public class AppointmentController {
     // ⚙️ 2. Load slots dynamically for a selected doctor (AJAX or htmx)
     @GetMapping("/slots/{doctorId}")
     @ResponseBody
-    public List<AppointmentSlot> getSlotsForDoctor(@PathVariable String doctorId) {
-        return appointmentService.getAvailableSlots(doctorId);
+    public ResponseEntity<List<AppointmentSlot>> getSlotsForDoctor(
+            @PathVariable String doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            WebRequest request) {
+        return conditional(request, appointmentService.getAvailabilityTag(doctorId, from), PRIVATE_REVALIDATE,
+                () -> appointmentService.getAvailableSlots(doctorId, from, to));
+    }
+
+    // "Next free cardiology slot": earliest free slots across every doctor of a specialization
+    @GetMapping("/slots/specialization/{specialization}/earliest")
+    @ResponseBody
+    public ResponseEntity<List<AvailableSlot>> getEarliestSlots(
+            @PathVariable String specialization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(appointmentService.getEarliestAvailableSlots(
+                doctorService.getDoctorsBySpecialization(specialization), from, to, limit));
+    }
+
+    // Pushes slot-booked / slot-released events so the page can drop taken slots without polling
+    @GetMapping(value = "/slots/{doctorId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> streamSlotEvents(@PathVariable String doctorId) {
+        return subscription(slotEventHub.subscribeToDoctor(doctorId));
+    }
+
+    @GetMapping(value = "/slots/specialization/{specialization}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> streamSpecializationSlotEvents(@PathVariable String specialization) {
+        return subscription(slotEventHub.subscribeToSpecialization(specialization));
+    }
+
+    // Doctor dropdown, loaded by the page script so the browser can revalidate it
+    @GetMapping("/doctors")
+    @ResponseBody
+    public ResponseEntity<List<Doctor>> getDoctors(WebRequest request) {
+        return conditional(request, doctorService.getDirectoryTag(), PRIVATE_REVALIDATE, doctorService::getAllDoctors);
+    }
+
+    // Typeahead for the doctor picker, so the page never has to load the whole directory
+    @GetMapping("/doctors/search")
+    @ResponseBody
+    public ResponseEntity<DoctorSearchPage> searchDoctors(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(doctorService.searchDoctors(query, page, size));
+    }
+
+    // Holds the slot while the patient finishes the form; the page releases it on a new selection
+    @PostMapping("/slots/{slotId}/hold")
+    @ResponseBody
+    public ResponseEntity<SlotHold> holdSlot(@PathVariable String slotId) {
+        User user = userService.findByUsername(SecurityContextHolder.getContext().getAuthentication().getName());
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return hold(slotHoldService, user.getId(), slotId);
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @ResponseBody
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId, @RequestParam String slotId) {
+        User user = userService.findByUsername(SecurityContextHolder.getContext().getAuthentication().getName());
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        slotHoldService.releaseHold(user.getId(), slotId, holdId);
+        return ResponseEntity.noContent().build();
     }
 
     // ✅ 3. Book an appointment
     @PostMapping("/book")
     public String bookAppointment(
-            @RequestParam String doctorId,
-            @RequestParam String slotId) {
+            @RequestParam String slotId,
+            @RequestParam(required = false) String holdId) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String username = authentication.getName();
@@ -82,7 +180,13 @@ public class AppointmentController {
             if (user == null) {
                 throw new RuntimeException("User not authenticated");
             }
-            appointmentService.bookAppointment(user.getId(), slotId, doctorId);
+            if (holdId != null && !holdId.isBlank()) {
+                if (slotHoldService.confirmHold(user.getId(), slotId, holdId) == null) {
+                    throw new RuntimeException("Your hold on this slot has expired");
+                }
+            } else {
+                appointmentService.bookAppointment(user.getId(), slotId);
+            }
             return "redirect:/appointments?success";
         } catch (Exception e) {
             e.printStackTrace();
@@ -111,18 +215,133 @@ public class AppointmentController {
     static class AppointmentApiController {
 
         private final AppointmentService appointmentService;
+        private final AppointmentReadModelService appointmentReadModelService;
+        private final DoctorService doctorService;
+        private final UserService userService;
+        private final SlotEventHub slotEventHub;
+        private final SlotHoldService slotHoldService;
+        private final SlotReconciliationService slotReconciliationService;
+        private final SlotGenerationService slotGenerationService;
+        private final ObjectMapper objectMapper;
 
         @GetMapping("/doctor/{doctorId}/slots")
-        public ResponseEntity<List<AppointmentSlot>> getAvailableSlots(@PathVariable String doctorId) {
-            return ResponseEntity.ok(appointmentService.getAvailableSlots(doctorId));
+        public ResponseEntity<List<AppointmentSlot>> getAvailableSlots(
+                @PathVariable String doctorId,
+                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                WebRequest request) {
+            return conditional(request, appointmentService.getAvailabilityTag(doctorId, from), REVALIDATE,
+                    () -> appointmentService.getAvailableSlots(doctorId, from, to));
+        }
+
+        @GetMapping(value = "/doctor/{doctorId}/slots/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public ResponseEntity<SseEmitter> streamSlotEvents(@PathVariable String doctorId) {
+            return subscription(slotEventHub.subscribeToDoctor(doctorId));
+        }
+
+        @GetMapping("/specialization/{specialization}/slots/earliest")
+        public ResponseEntity<List<AvailableSlot>> getEarliestSlots(
+                @PathVariable String specialization,
+                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                @RequestParam(required = false) Integer limit) {
+            return ResponseEntity.ok(appointmentService.getEarliestAvailableSlots(
+                    doctorService.getDoctorsBySpecialization(specialization), from, to, limit));
+        }
+
+        @GetMapping(value = "/specialization/{specialization}/slots/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public ResponseEntity<SseEmitter> streamSpecializationSlotEvents(@PathVariable String specialization) {
+            return subscription(slotEventHub.subscribeToSpecialization(specialization));
+        }
+
+        @GetMapping("/doctors")
+        public ResponseEntity<List<Doctor>> getDoctors(WebRequest request) {
+            return conditional(request, doctorService.getDirectoryTag(), REVALIDATE, doctorService::getAllDoctors);
+        }
+
+        @GetMapping("/doctors/search")
+        public ResponseEntity<DoctorSearchPage> searchDoctors(
+                @RequestParam(name = "q", required = false) String query,
+                @RequestParam(required = false) Integer page,
+                @RequestParam(required = false) Integer size) {
+            return ResponseEntity.ok(doctorService.searchDoctors(query, page, size));
         }
 
         @PostMapping("/book")
         public ResponseEntity<Appointment> bookAppointment(
                 @RequestParam String patientId,
-                @RequestParam String slotId,
-                @RequestParam String doctorId) {
-            return ResponseEntity.ok(appointmentService.bookAppointment(patientId, slotId, doctorId));
+                @RequestParam String slotId) {
+            BookingResult result = appointmentService.tryBookAppointment(patientId, slotId);
+            return switch (result.getOutcome()) {
+                case BOOKED -> ResponseEntity.ok(result.getAppointment());
+                case SLOT_TAKEN -> ResponseEntity.status(HttpStatus.CONFLICT).build();
+                case SLOT_NOT_FOUND -> ResponseEntity.notFound().build();
+            };
+        }
+
+        // Holds are always placed for the signed-in patient
+        @PostMapping("/slots/{slotId}/hold")
+        public ResponseEntity<SlotHold> holdSlot(@PathVariable String slotId) {
+            User user = currentUser();
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            return hold(slotHoldService, user.getId(), slotId);
+        }
+
+        // 410 once the hold has expired, been released or is not the caller's
+        @PostMapping("/holds/{holdId}/confirm")
+        public ResponseEntity<Appointment> confirmHold(@PathVariable String holdId, @RequestParam String slotId) {
+            User user = currentUser();
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            Appointment appointment = slotHoldService.confirmHold(user.getId(), slotId, holdId);
+            return appointment != null ? ResponseEntity.ok(appointment) : ResponseEntity.status(HttpStatus.GONE).build();
+        }
+
+        @DeleteMapping("/holds/{holdId}")
+        public ResponseEntity<Void> releaseHold(@PathVariable String holdId, @RequestParam String slotId) {
+            User user = currentUser();
+            if (user == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            return slotHoldService.releaseHold(user.getId(), slotId, holdId)
+                    ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        }
+
+        // 409 when an all-or-nothing request was not applied; the body lists why per item
+        @PostMapping("/bulk/book")
+        public ResponseEntity<BulkOperationResult> bookAppointments(@Valid @RequestBody BulkBookingRequest request) {
+            try {
+                return bulkResponse(appointmentService.bookAppointments(
+                        request.getPatientId(), request.getSlotIds(), modeOf(request.getMode())));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        @PostMapping("/bulk/cancel")
+        public ResponseEntity<BulkOperationResult> cancelAppointments(@Valid @RequestBody BulkCancelRequest request) {
+            try {
+                return bulkResponse(appointmentService.cancelAppointments(
+                        request.getAppointmentIds(), modeOf(request.getMode())));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        private User currentUser() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication != null ? userService.findByUsername(authentication.getName()) : null;
+        }
+
+        private static BulkMode modeOf(BulkMode mode) {
+            return mode != null ? mode : BulkMode.ALL_OR_NOTHING;
+        }
+
+        private static ResponseEntity<BulkOperationResult> bulkResponse(BulkOperationResult result) {
+            return ResponseEntity.status(result.isApplied() ? HttpStatus.OK : HttpStatus.CONFLICT).body(result);
         }
 
         @PutMapping("/{appointmentId}/cancel")
@@ -135,6 +354,104 @@ public class AppointmentController {
         public ResponseEntity<List<Appointment>> getAppointmentsByPatient(@PathVariable String patientId) {
             return ResponseEntity.ok(appointmentService.getAppointmentsByPatient(patientId));
         }
+
+        @GetMapping("/patient/{patientId}/page")
+        public ResponseEntity<AppointmentPage> getAppointmentPage(
+                @PathVariable String patientId,
+                @RequestParam(required = false) String cursor,
+                @RequestParam(required = false) Integer size) {
+            try {
+                return ResponseEntity.ok(appointmentService.getAppointmentsByPatient(patientId, cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        @PostMapping("/read-model/rebuild")
+        public ResponseEntity<Map<String, Long>> rebuildReadModel() {
+            return ResponseEntity.ok(Map.of("rebuilt", appointmentReadModelService.rebuild()));
+        }
+
+        // Admin only; without a range it extends the rolling horizon like the nightly job
+        @PostMapping("/slots/generate")
+        public ResponseEntity<SlotGenerationReport> generateSlots(
+                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+            if (from == null && to == null) {
+                return ResponseEntity.ok(slotGenerationService.extendHorizon());
+            }
+            if (from == null || to == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            try {
+                return ResponseEntity.ok(slotGenerationService.generateSlots(from, to));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        // Admin only; 202 once a pass has started in the background, 409 while one is running
+        @PostMapping("/slots/reconcile")
+        public ResponseEntity<Void> reconcileSlots() {
+            return slotReconciliationService.submit()
+                    ? ResponseEntity.accepted().build() : ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        @GetMapping("/slots/reconcile")
+        public ResponseEntity<ReconciliationReport> getLastReconciliation() {
+            ReconciliationReport report = slotReconciliationService.getLastReport();
+            return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+        }
+
+        // Newline-delimited JSON, written as the Mongo cursor yields documents
+        @GetMapping(value = "/patient/{patientId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public ResponseEntity<StreamingResponseBody> streamAppointmentsByPatient(@PathVariable String patientId) {
+            StreamingResponseBody body = out -> {
+                try (Stream<Appointment> appointments = appointmentService.streamAppointmentsByPatient(patientId)) {
+                    Iterator<Appointment> it = appointments.iterator();
+                    while (it.hasNext()) {
+                        out.write(objectMapper.writeValueAsBytes(it.next()));
+                        out.write('\n');
+                    }
+                }
+                out.flush();
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+    }
+
+    // 201 with the hold, 409 when the slot is not free, 429 once the patient holds the maximum
+    private static ResponseEntity<SlotHold> hold(SlotHoldService slotHoldService, String patientId, String slotId) {
+        try {
+            SlotHold hold = slotHoldService.placeHold(patientId, slotId);
+            return hold != null ? ResponseEntity.status(HttpStatus.CREATED).body(hold)
+                    : ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (SlotHoldService.HoldLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    // Listings change rarely but must never be stale: always revalidate, answered with 304 when unchanged
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    private static final CacheControl PRIVATE_REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    /**
+     * Answers 304 when the request's If-None-Match matches {@code tag}, before the body is built.
+     */
+    private static <T> ResponseEntity<T> conditional(WebRequest request, String tag, CacheControl cacheControl,
+                                                     Supplier<T> body) {
+        if (request.checkNotModified(tag)) {
+            // checkNotModified has already written the ETag header
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(tag).cacheControl(cacheControl).body(body.get());
+    }
+
+    private static ResponseEntity<SseEmitter> subscription(SseEmitter emitter) {
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter);
     }
 
     @Data
@@ -6,6 +6,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.example.health_care_system.service.UserService;
+import com.example.health_care_system.dto.SessionUser;
 import com.example.health_care_system.model.User;
 import jakarta.servlet.http.HttpSession;
 
@@ -21,13 +22,9 @@ public class HomeController {
         String username = authentication.getName();
         User user = userService.findByUsername(username);
         if (user != null) {
-            session.setAttribute("loggedInUser", true);
-            session.setAttribute("username", user.getUsername());
-            session.setAttribute("fullName", user.getFirstName() + " " + user.getLastName());
+            session.setAttribute(SessionUser.ATTRIBUTE, SessionUser.of(user, authentication.getAuthorities()));
         } else {
-            session.removeAttribute("loggedInUser");
-            session.removeAttribute("username");
-            session.removeAttribute("fullName");
+            session.removeAttribute(SessionUser.ATTRIBUTE);
         }
         return "home"; // This will render the home.html template
     }
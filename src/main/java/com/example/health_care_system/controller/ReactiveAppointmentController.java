@@ -0,0 +1,60 @@
+package com.example.health_care_system.controller;
+
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.service.ReactiveAppointmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reactive variant of the appointment REST API. Lists are streamed as NDJSON and pulled
+ * from the Mongo cursor only as fast as the client reads them.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/reactive/appointments")
+@RequiredArgsConstructor
+public class ReactiveAppointmentController {
+
+    private final ReactiveAppointmentService appointmentService;
+
+    @GetMapping(value = "/doctor/{doctorId}/slots", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AppointmentSlot> getAvailableSlots(
+            @PathVariable String doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        return appointmentService.getAvailableSlots(doctorId, from);
+    }
+
+    @PostMapping("/book")
+    public Mono<ResponseEntity<Appointment>> bookAppointment(
+            @RequestParam String patientId,
+            @RequestParam String slotId) {
+        return appointmentService.bookAppointment(patientId, slotId)
+                .map(result -> switch (result.getOutcome()) {
+                    case BOOKED -> ResponseEntity.ok(result.getAppointment());
+                    case SLOT_TAKEN -> ResponseEntity.status(HttpStatus.CONFLICT).<Appointment>build();
+                    case SLOT_NOT_FOUND -> ResponseEntity.notFound().<Appointment>build();
+                });
+    }
+
+    @PutMapping("/{appointmentId}/cancel")
+    public Mono<ResponseEntity<Void>> cancelAppointment(@PathVariable String appointmentId) {
+        return appointmentService.cancelAppointment(appointmentId)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping(value = "/patient/{patientId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Appointment> getAppointmentsByPatient(@PathVariable String patientId) {
+        return appointmentService.getAppointmentsByPatient(patientId);
+    }
+}
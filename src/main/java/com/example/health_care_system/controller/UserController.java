@@ -4,10 +4,12 @@ import com.example.health_care_system.dto.ChangePasswordDto;
 import com.example.health_care_system.dto.ForgotPasswordDto;
 import com.example.health_care_system.dto.LoginDto;
 import com.example.health_care_system.dto.ResetPasswordDto;
+import com.example.health_care_system.dto.SessionUser;
 import com.example.health_care_system.dto.UserProfileDto;
 import com.example.health_care_system.dto.UserRegistrationDto;
 import com.example.health_care_system.model.PasswordResetToken;
 import com.example.health_care_system.model.User;
+import com.example.health_care_system.service.CustomUserDetailsService;
 import com.example.health_care_system.service.UserService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
@@ -28,6 +30,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
     @GetMapping("/register")
     public String showRegistrationForm(Model model) {
         model.addAttribute("user", new UserRegistrationDto());
@@ -59,7 +64,7 @@ public class UserController {
     @GetMapping("/login")
     public String showLoginForm(Model model, HttpSession session) {
         // Check if user is already logged in
-        if (session.getAttribute("loggedInUser") != null) {
+        if (currentUser(session) != null) {
             return "redirect:/home";
         }
 
@@ -82,10 +87,8 @@ public class UserController {
         try {
             User user = userService.authenticateUser(loginDto);
 
-            // Store user in session
-            session.setAttribute("loggedInUser", user);
-            session.setAttribute("username", user.getUsername());
-            session.setAttribute("fullName", user.getFirstName() + " " + user.getLastName());
+            // Keep only the compact principal in the session, never the entity
+            session.setAttribute(SessionUser.ATTRIBUTE, SessionUser.of(user, userDetailsService.authoritiesOf(user)));
 
             redirectAttributes.addFlashAttribute("success",
                     "Welcome back, " + user.getFirstName() + "!");
@@ -106,7 +109,7 @@ public class UserController {
 
     @GetMapping("/home")
     public String home(HttpSession session, Model model) {
-        User loggedInUser = (User) session.getAttribute("loggedInUser");
+        SessionUser loggedInUser = currentUser(session);
         if (loggedInUser == null) {
             return "redirect:/login";
         }
@@ -218,7 +221,7 @@ public class UserController {
 
     @GetMapping("/profile")
     public String showProfile(Model model, HttpSession session, RedirectAttributes redirectAttributes) {
-        User loggedInUser = (User) session.getAttribute("loggedInUser");
+        User loggedInUser = loadUser(session);
         if (loggedInUser == null) {
             redirectAttributes.addFlashAttribute("error", "Please log in to access your profile.");
             return "redirect:/login";
@@ -242,7 +245,7 @@ public class UserController {
                                 HttpSession session,
                                 RedirectAttributes redirectAttributes) {
 
-        User loggedInUser = (User) session.getAttribute("loggedInUser");
+        User loggedInUser = loadUser(session);
         if (loggedInUser == null) {
             redirectAttributes.addFlashAttribute("error", "Please log in to access your profile.");
             return "redirect:/login";
@@ -257,9 +260,7 @@ public class UserController {
             User updatedUser = userService.updateUserProfile(loggedInUser.getId(), profileDto);
 
             // Update session with new user data
-            session.setAttribute("loggedInUser", updatedUser);
-            session.setAttribute("username", updatedUser.getUsername());
-            session.setAttribute("fullName", updatedUser.getFirstName() + " " + updatedUser.getLastName());
+            session.setAttribute(SessionUser.ATTRIBUTE, SessionUser.of(updatedUser, userDetailsService.authoritiesOf(updatedUser)));
 
             redirectAttributes.addFlashAttribute("success", "Profile updated successfully!");
             return "redirect:/profile";
@@ -273,7 +274,7 @@ public class UserController {
 
     @GetMapping("/change-password")
     public String showChangePasswordForm(Model model, HttpSession session, RedirectAttributes redirectAttributes) {
-        User loggedInUser = (User) session.getAttribute("loggedInUser");
+        User loggedInUser = loadUser(session);
         if (loggedInUser == null) {
             redirectAttributes.addFlashAttribute("error", "Please log in to change your password.");
             return "redirect:/login";
@@ -292,7 +293,7 @@ public class UserController {
                                  RedirectAttributes redirectAttributes,
                                  HttpServletRequest request) {
 
-        User loggedInUser = (User) session.getAttribute("loggedInUser");
+        User loggedInUser = loadUser(session);
         if (loggedInUser == null) {
             redirectAttributes.addFlashAttribute("error", "Please log in to change your password.");
             return "redirect:/login";
@@ -347,4 +348,14 @@ public class UserController {
             }
         }
     }
-}
\ No newline at end of file
+
+    private static SessionUser currentUser(HttpSession session) {
+        return session.getAttribute(SessionUser.ATTRIBUTE) instanceof SessionUser user ? user : null;
+    }
+
+    // Pages showing email and timestamps read the full user; the session only holds the principal
+    private User loadUser(HttpSession session) {
+        SessionUser sessionUser = currentUser(session);
+        return sessionUser != null ? userService.findById(sessionUser.id()) : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.health_care_system.dto;
+
+import com.example.health_care_system.model.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class AppointmentPage {
+
+    private List<Appointment> items;
+
+    // Opaque continuation token for the next page, null on the last page
+    private String nextCursor;
+}
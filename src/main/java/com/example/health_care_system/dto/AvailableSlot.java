@@ -0,0 +1,18 @@
+package com.example.health_care_system.dto;
+
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.model.Doctor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A free slot together with the doctor offering it, for listings that span several doctors.
+ */
+public record AvailableSlot(String slotId, String doctorId, String doctorName, String specialization,
+                            LocalDateTime startTime, LocalDateTime endTime) {
+
+    public static AvailableSlot of(AppointmentSlot slot, Doctor doctor) {
+        return new AvailableSlot(slot.getId(), slot.getDoctorId(), doctor != null ? doctor.getName() : null,
+                doctor != null ? doctor.getSpecialization() : null, slot.getStartTime(), slot.getEndTime());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.health_care_system.dto;
+
+import com.example.health_care_system.model.Appointment;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingResult {
+
+    public enum Outcome {
+        BOOKED,
+        SLOT_TAKEN,
+        SLOT_NOT_FOUND
+    }
+
+    private final Outcome outcome;
+    private final Appointment appointment;
+
+    public static BookingResult booked(Appointment appointment) {
+        return new BookingResult(Outcome.BOOKED, appointment);
+    }
+
+    public static BookingResult slotTaken() {
+        return new BookingResult(Outcome.SLOT_TAKEN, null);
+    }
+
+    public static BookingResult slotNotFound() {
+        return new BookingResult(Outcome.SLOT_NOT_FOUND, null);
+    }
+
+    public boolean isBooked() {
+        return outcome == Outcome.BOOKED;
+    }
+}
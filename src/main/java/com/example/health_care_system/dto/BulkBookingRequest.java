@@ -0,0 +1,19 @@
+package com.example.health_care_system.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkBookingRequest {
+
+    @NotBlank(message = "Patient id is required")
+    private String patientId;
+
+    @NotEmpty(message = "At least one slot id is required")
+    private List<String> slotIds;
+
+    private BulkMode mode = BulkMode.ALL_OR_NOTHING;
+}
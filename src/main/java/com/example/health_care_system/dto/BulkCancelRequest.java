@@ -0,0 +1,15 @@
+package com.example.health_care_system.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkCancelRequest {
+
+    @NotEmpty(message = "At least one appointment id is required")
+    private List<String> appointmentIds;
+
+    private BulkMode mode = BulkMode.ALL_OR_NOTHING;
+}
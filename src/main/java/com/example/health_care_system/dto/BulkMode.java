@@ -0,0 +1,11 @@
+package com.example.health_care_system.dto;
+
+/**
+ * How a bulk booking or cancellation treats items that cannot be applied.
+ */
+public enum BulkMode {
+    /** Apply every item or none: one failing item leaves everything unchanged. */
+    ALL_OR_NOTHING,
+    /** Apply what can be applied and report the rest per item. */
+    BEST_EFFORT
+}
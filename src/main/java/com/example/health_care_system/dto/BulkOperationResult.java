@@ -0,0 +1,35 @@
+package com.example.health_care_system.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Per-item outcome of a bulk booking or cancellation. {@code applied} is false when an
+ * all-or-nothing request was rejected and nothing was changed.
+ */
+@Data
+public class BulkOperationResult {
+
+    public enum Outcome {
+        BOOKED,
+        CANCELLED,
+        SLOT_TAKEN,
+        SLOT_NOT_FOUND,
+        NOT_FOUND,
+        ALREADY_CANCELLED,
+        // would have succeeded, but the all-or-nothing request was not applied
+        NOT_APPLIED
+    }
+
+    public record Item(String id, Outcome outcome, String appointmentId) {
+    }
+
+    private final BulkMode mode;
+    private final boolean applied;
+    private final List<Item> items;
+
+    public long count(Outcome outcome) {
+        return items.stream().filter(item -> item.outcome() == outcome).count();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.health_care_system.dto;
+
+import com.example.health_care_system.model.Doctor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class DoctorSearchPage {
+
+    private List<Doctor> items;
+
+    private int page;
+    private int size;
+
+    // Number of doctors matching the query across all pages
+    private int total;
+}
@@ -0,0 +1,30 @@
+package com.example.health_care_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one slot/appointment reconciliation pass. Conflicts and missing slots are
+ * counted but left alone, as there is no safe automatic repair for them.
+ */
+@Data
+@AllArgsConstructor
+public class ReconciliationReport {
+
+    private long slotsScanned;
+    private long appointmentsScanned;
+    // booked slots whose appointment does not exist
+    private long orphanedSlotsReleased;
+    // booked slots still held by a cancelled appointment
+    private long cancelledSlotsReleased;
+    // booked appointments whose slot had been freed
+    private long slotsReclaimed;
+    // booked appointments whose slot belongs to another appointment
+    private long conflicts;
+    private long missingSlots;
+    private long durationMillis;
+
+    public long getRepaired() {
+        return orphanedSlotsReleased + cancelledSlotsReleased + slotsReclaimed;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.health_care_system.dto;
+
+import com.example.health_care_system.model.User;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What the HTTP session keeps about the logged-in user. Deliberately small and immutable:
+ * no password hash, no timestamps, and a hand-written serialised form so sessions stay
+ * cheap to hold in memory and to persist in a shared session store.
+ */
+public record SessionUser(String id, String username, String displayName, List<String> roles) implements Serializable {
+
+    public static final String ATTRIBUTE = "loggedInUser";
+
+    public static final List<String> DEFAULT_ROLES = List.of("ROLE_USER");
+
+    public SessionUser {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(username, "username");
+        displayName = displayName == null || displayName.isBlank() ? username : displayName;
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    /**
+     * Session view of {@code user} with the roles taken from the authorities they were granted.
+     */
+    public static SessionUser of(User user, Collection<? extends GrantedAuthority> authorities) {
+        String displayName = ((user.getFirstName() == null ? "" : user.getFirstName()) + " "
+                + (user.getLastName() == null ? "" : user.getLastName())).trim();
+        List<String> roles = authorities == null ? DEFAULT_ROLES
+                : authorities.stream().map(GrantedAuthority::getAuthority).toList();
+        return new SessionUser(user.getId(), user.getUsername(), displayName, roles);
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+
+    // Serialised through a proxy that writes only the field values, not the record descriptor
+    @Serial
+    private Object writeReplace() {
+        return new Ser(this);
+    }
+
+    static final class Ser implements Externalizable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private static final byte VERSION = 1;
+
+        private SessionUser user;
+
+        public Ser() {
+        }
+
+        Ser(SessionUser user) {
+            this.user = user;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeByte(VERSION);
+            out.writeUTF(user.id);
+            out.writeUTF(user.username);
+            out.writeUTF(user.displayName);
+            out.writeByte(user.roles.size());
+            for (String role : user.roles) {
+                out.writeUTF(role);
+            }
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported session user version " + version);
+            }
+            String id = in.readUTF();
+            String username = in.readUTF();
+            String displayName = in.readUTF();
+            int roleCount = in.readUnsignedByte();
+            List<String> roles = new ArrayList<>(roleCount);
+            for (int i = 0; i < roleCount; i++) {
+                roles.add(in.readUTF());
+            }
+            user = new SessionUser(id, username, displayName, roles);
+        }
+
+        @Serial
+        private Object readResolve() {
+            return user;
+        }
+    }
+}
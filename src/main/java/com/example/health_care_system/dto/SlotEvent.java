@@ -0,0 +1,37 @@
+package com.example.health_care_system.dto;
+
+import com.example.health_care_system.model.AppointmentSlot;
+
+import java.time.LocalDateTime;
+
+/**
+ * A slot was booked, held or released. Published by the appointment services as an application
+ * event and pushed to SSE subscribers by SlotEventHub.
+ */
+public record SlotEvent(String type, String slotId, String doctorId, String specialization,
+                        LocalDateTime startTime, LocalDateTime endTime) {
+
+    public static final String BOOKED = "slot-booked";
+    public static final String HELD = "slot-held";
+    public static final String RELEASED = "slot-released";
+
+    public static SlotEvent booked(AppointmentSlot slot) {
+        return of(BOOKED, slot);
+    }
+
+    public static SlotEvent held(AppointmentSlot slot) {
+        return of(HELD, slot);
+    }
+
+    public static SlotEvent released(AppointmentSlot slot) {
+        return of(RELEASED, slot);
+    }
+
+    public SlotEvent withSpecialization(String specialization) {
+        return new SlotEvent(type, slotId, doctorId, specialization, startTime, endTime);
+    }
+
+    private static SlotEvent of(String type, AppointmentSlot slot) {
+        return new SlotEvent(type, slot.getId(), slot.getDoctorId(), null, slot.getStartTime(), slot.getEndTime());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.health_care_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SlotGenerationReport {
+
+    private int templates;
+    private long slotsGenerated;
+    private long slotsInserted;
+    private long duplicatesSkipped;
+    private int batches;
+    private long durationMillis;
+
+    public double getSlotsPerSecond() {
+        return durationMillis == 0 ? slotsGenerated : slotsGenerated * 1000.0 / durationMillis;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.health_care_system.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A patient's time-limited hold on a slot. {@code holdId} becomes the appointment id when the
+ * hold is confirmed.
+ */
+public record SlotHold(String holdId, String slotId, String doctorId, String patientId, LocalDateTime expiresAt) {
+}
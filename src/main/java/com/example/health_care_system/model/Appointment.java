@@ -2,11 +2,21 @@ package com.example.health_care_system.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "appointments")
+@CompoundIndexes({
+        // patient history, newest first, and its keyset pagination
+        @CompoundIndex(name = "patient_created", def = "{'patientId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "slot", def = "{'slotId': 1}"),
+        // at most one active appointment per slot
+        @CompoundIndex(name = "slot_booked_unique", def = "{'slotId': 1, 'status': 1}", unique = true,
+                partialFilter = "{'status': 'BOOKED'}")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -2,11 +2,24 @@ package com.example.health_care_system.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "appointment_slots")
+@CompoundIndexes({
+        // free-slot listings per doctor in time order
+        @CompoundIndex(name = "doctor_booked_start", def = "{'doctorId': 1, 'booked': 1, 'startTime': 1}"),
+        // one slot per doctor and start time, keeps slot generation idempotent
+        @CompoundIndex(name = "doctor_start_unique", def = "{'doctorId': 1, 'startTime': 1}", unique = true),
+        // reconciliation scan over booked slots in id order
+        @CompoundIndex(name = "booked_id", def = "{'booked': 1, '_id': 1}"),
+        // active holds per patient, only held slots carry heldBy
+        @CompoundIndex(name = "held_by_expiry", def = "{'heldBy': 1, 'holdExpiresAt': 1}", sparse = true)
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -19,6 +32,12 @@ public class AppointmentSlot {
     private LocalDateTime endTime;
 
     private boolean booked = false;
+    private String appointmentId; // Appointment currently holding the slot
+
+    // Set while a patient holds the slot before confirming; appointmentId is then the hold id
+    private String heldBy;
+    @Indexed(sparse = true)
+    private LocalDateTime holdExpiresAt;
 
     // Constructor for seeding purposes
     public AppointmentSlot(LocalDateTime startTime, LocalDateTime endTime, boolean booked, String doctorId) {
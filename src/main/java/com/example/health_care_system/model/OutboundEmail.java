@@ -0,0 +1,50 @@
+package com.example.health_care_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "outbound_emails")
+@CompoundIndex(name = "status_next_attempt", def = "{'status': 1, 'nextAttemptAt': 1}")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboundEmail {
+
+    @Id
+    private String id;
+
+    private String to;
+    private String subject;
+    private String body;
+
+    private String status = "PENDING"; // PENDING, SENDING, SENT, FAILED
+    private int attempts = 0;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+
+    // Dispatcher node sending the mail, and until when; another node may take it over afterwards
+    private String claimedBy;
+    private LocalDateTime leaseExpiresAt;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+
+    // TTL index: MongoDB removes SENT and FAILED mails a week after they complete
+    @Indexed(expireAfter = "7d")
+    private LocalDateTime completedAt;
+
+    public OutboundEmail(String to, String subject, String body) {
+        this.to = to;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
@@ -24,8 +24,11 @@ public class PasswordResetToken {
     @Indexed
     private String email;
 
+    // TTL index: MongoDB removes the token once expiryDate has passed
+    @Indexed(expireAfter = "0s")
     private LocalDateTime expiryDate;
 
+    @Indexed(partialFilter = "{ 'used': true }")
     private boolean used = false;
 
     private LocalDateTime createdAt;
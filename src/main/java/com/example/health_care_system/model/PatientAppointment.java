@@ -0,0 +1,39 @@
+package com.example.health_care_system.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for the patient's appointment list: one document per appointment carrying
+ * everything the page shows, so it renders from a single query. Written by AppointmentService
+ * and rebuildable from appointments, slots and doctors.
+ */
+@Document(collection = "patient_appointments")
+@CompoundIndex(name = "patient_start", def = "{'patientId': 1, 'startTime': -1}")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatientAppointment {
+    @Id
+    private String id;          // Same id as the Appointment
+
+    private String patientId;
+    private String doctorId;
+    private String doctorName;
+    private String specialization;
+    private String slotId;
+
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    private String status;
+    private LocalDateTime createdAt;
+
+    @Indexed
+    private LocalDateTime syncedAt; // Last write, used to drop orphans after a rebuild
+}
@@ -0,0 +1,101 @@
+package com.example.health_care_system.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Weekly working pattern of a doctor, used to materialise {@link AppointmentSlot}s.
+ */
+@Document(collection = "schedule_templates")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScheduleTemplate {
+
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String doctorId;
+
+    private int slotMinutes = 30;
+
+    private List<TimeRange> workingHours = new ArrayList<>();
+
+    private List<TimeRange> breaks = new ArrayList<>(); // a null dayOfWeek applies to every day
+
+    private Set<LocalDate> holidays = new HashSet<>();
+
+    private boolean active = true;
+
+    public ScheduleTemplate(String doctorId, int slotMinutes, List<TimeRange> workingHours, List<TimeRange> breaks) {
+        this.doctorId = doctorId;
+        this.slotMinutes = slotMinutes;
+        this.workingHours = workingHours;
+        this.breaks = breaks;
+    }
+
+    /**
+     * Start times of all slots on the given date, in order.
+     */
+    public List<LocalDateTime> slotStartsOn(LocalDate date) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        if (!active || slotMinutes <= 0 || holidays.contains(date)) {
+            return starts;
+        }
+
+        DayOfWeek day = date.getDayOfWeek();
+        for (TimeRange hours : workingHours) {
+            if (hours.getDayOfWeek() != day) {
+                continue;
+            }
+            LocalTime start = hours.getStart();
+            while (!start.plusMinutes(slotMinutes).isAfter(hours.getEnd())
+                    && start.plusMinutes(slotMinutes).isAfter(start)) {
+                LocalTime end = start.plusMinutes(slotMinutes);
+                TimeRange overlapping = findBreak(day, start, end);
+                if (overlapping == null) {
+                    starts.add(date.atTime(start));
+                    start = end;
+                } else {
+                    // resume right after the break
+                    start = overlapping.getEnd();
+                }
+            }
+        }
+        starts.sort(null);
+        return starts;
+    }
+
+    private TimeRange findBreak(DayOfWeek day, LocalTime start, LocalTime end) {
+        for (TimeRange pause : breaks) {
+            boolean applies = pause.getDayOfWeek() == null || pause.getDayOfWeek() == day;
+            if (applies && pause.getStart().isBefore(end) && pause.getEnd().isAfter(start)) {
+                return pause;
+            }
+        }
+        return null;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TimeRange {
+        private DayOfWeek dayOfWeek;
+        private LocalTime start;
+        private LocalTime end;
+    }
+}
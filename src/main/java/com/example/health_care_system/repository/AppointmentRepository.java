@@ -4,8 +4,15 @@ import com.example.health_care_system.model.Appointment;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface AppointmentRepository extends MongoRepository<Appointment,String> {
+public interface AppointmentRepository extends MongoRepository<Appointment,String>, AppointmentRepositoryCustom {
     List<Appointment> findByPatientId(String patientId);
     boolean existsBySlotId(String slotId);
+
+    // Backed by a live cursor, must be closed by the caller
+    Stream<Appointment> findByPatientIdOrderByCreatedAtDescIdDesc(String patientId);
+
+    // Full pass for rebuilding derived collections, must be closed by the caller
+    Stream<Appointment> streamAllBy();
 }
@@ -0,0 +1,35 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.Appointment;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Keyset page of a patient's appointments, newest first by (createdAt, id).
+     * Pass a null {@code afterCreatedAt} for the first page.
+     */
+    List<Appointment> findPatientPage(String patientId, LocalDateTime afterCreatedAt, String afterId, int limit);
+
+    /**
+     * Cancels every listed appointment that is not cancelled yet, in a single update.
+     * Returns how many were changed.
+     */
+    long cancelAll(Collection<String> appointmentIds);
+
+    /**
+     * Reads the next {@code limit} appointments after {@code afterId} in id order (from the start
+     * when null) and joins each one to its slot, in one aggregation.
+     */
+    List<SlotLink> scanSlotLinks(String afterId, int limit);
+
+    /**
+     * An appointment with the state of its slot; {@code slotFound} is false when the slot is gone.
+     */
+    record SlotLink(String appointmentId, String slotId, String status, LocalDateTime createdAt,
+                    boolean slotFound, boolean slotBooked, String slotAppointmentId) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class AppointmentRepositoryCustomImpl implements AppointmentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Appointment> findPatientPage(String patientId, LocalDateTime afterCreatedAt, String afterId, int limit) {
+        Criteria criteria = Criteria.where("patientId").is(patientId);
+        if (afterCreatedAt != null) {
+            Object id = ObjectId.isValid(afterId) ? new ObjectId(afterId) : afterId;
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(afterCreatedAt),
+                    Criteria.where("createdAt").is(afterCreatedAt).and("id").lt(id));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .limit(limit);
+        return mongoTemplate.find(query, Appointment.class);
+    }
+
+    @Override
+    public long cancelAll(Collection<String> appointmentIds) {
+        if (appointmentIds.isEmpty()) {
+            return 0;
+        }
+        Query query = Query.query(Criteria.where("id").in(appointmentIds).and("status").ne("CANCELLED"));
+        return mongoTemplate.updateMulti(query, Update.update("status", "CANCELLED"), Appointment.class)
+                .getModifiedCount();
+    }
+
+    @Override
+    public List<SlotLink> scanSlotLinks(String afterId, int limit) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        if (afterId != null) {
+            Object after = ObjectId.isValid(afterId) ? new ObjectId(afterId) : afterId;
+            stages.add(Aggregation.match(Criteria.where("_id").gt(after)));
+        }
+        stages.add(Aggregation.sort(Sort.Direction.ASC, "_id"));
+        stages.add(Aggregation.limit(limit));
+        // slotId is a plain string, while slot ids are stored as ObjectIds
+        stages.add(context -> new Document("$addFields", new Document("slotOid", new Document("$convert",
+                new Document("input", "$slotId").append("to", "objectId")
+                        .append("onError", null).append("onNull", null)))));
+        stages.add(Aggregation.lookup(mongoTemplate.getCollectionName(AppointmentSlot.class), "slotOid", "_id", "slot"));
+        stages.add(context -> new Document("$project", new Document("slotId", 1)
+                .append("status", 1)
+                .append("createdAt", 1)
+                .append("slotFound", new Document("$gt", List.of(new Document("$size", "$slot"), 0)))
+                .append("slotBooked", new Document("$arrayElemAt", List.of("$slot.booked", 0)))
+                .append("slotAppointmentId", new Document("$arrayElemAt", List.of("$slot.appointmentId", 0)))));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(stages),
+                        mongoTemplate.getCollectionName(Appointment.class), Document.class)
+                .getMappedResults().stream()
+                .map(appointment -> new SlotLink(appointment.get("_id").toString(), appointment.getString("slotId"),
+                        appointment.getString("status"), toLocalDateTime(appointment.getDate("createdAt")),
+                        appointment.getBoolean("slotFound", false), appointment.getBoolean("slotBooked", false),
+                        appointment.getString("slotAppointmentId")))
+                .toList();
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return date == null ? null : LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
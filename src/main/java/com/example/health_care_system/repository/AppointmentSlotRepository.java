@@ -1,11 +1,23 @@
 package com.example.health_care_system.repository;
 
 import com.example.health_care_system.model.AppointmentSlot;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface AppointmentSlotRepository extends MongoRepository<AppointmentSlot,String> {
-    List<AppointmentSlot> findByDoctorIdAndBookedFalse(String doctorId);
+public interface AppointmentSlotRepository extends MongoRepository<AppointmentSlot,String>, AppointmentSlotRepositoryCustom {
+    List<AppointmentSlot> findByDoctorIdAndBookedFalseAndStartTimeGreaterThanEqual(String doctorId, LocalDateTime from);
+
+    List<AppointmentSlot> findByDoctorIdInAndBookedFalseAndStartTimeGreaterThanEqual(Collection<String> doctorIds,
+                                                                                    LocalDateTime from);
+
+    List<AppointmentSlot> findByHoldExpiresAtBefore(LocalDateTime expiresAt, Pageable pageable);
+
+    List<AppointmentSlot> findByHoldExpiresAtAfter(LocalDateTime expiresAt);
+
+    long countByHeldByAndHoldExpiresAtAfter(String patientId, LocalDateTime now);
 
 }
@@ -0,0 +1,73 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.AppointmentSlot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface AppointmentSlotRepositoryCustom {
+
+    /**
+     * Atomically marks a free slot as booked by the given appointment.
+     * Returns the updated slot, or {@code null} if the slot does not exist or is already booked.
+     */
+    AppointmentSlot claimSlot(String slotId, String appointmentId);
+
+    /**
+     * Atomically frees a slot held by the given appointment (or by no recorded appointment).
+     * Returns the updated slot, or {@code null} if nothing matched.
+     */
+    AppointmentSlot releaseSlot(String slotId, String appointmentId);
+
+    /**
+     * {@link #claimSlot} for many slots in one unordered bulk write, keyed by slot id with the
+     * claiming appointment id as value. Returns how many slots were claimed; read the slots
+     * back to see which ones.
+     */
+    int claimSlots(Map<String, String> appointmentIdsBySlotId);
+
+    /**
+     * {@link #releaseSlot} for many slots in one unordered bulk write. Returns how many were freed.
+     */
+    int releaseSlots(Map<String, String> appointmentIdsBySlotId);
+
+    /**
+     * Claims a free slot for a patient until {@code expiresAt}, recording {@code holdId} as the
+     * owner so no other booking can take it. Returns the held slot, or {@code null} if it is not free.
+     */
+    AppointmentSlot holdSlot(String slotId, String holdId, String patientId, LocalDateTime expiresAt);
+
+    /**
+     * Turns the patient's unexpired hold into a booking owned by appointment {@code holdId}.
+     * Returns the booked slot, or {@code null} if the hold has expired, was released or is not theirs.
+     */
+    AppointmentSlot confirmHold(String slotId, String holdId, String patientId, LocalDateTime now);
+
+    /**
+     * Frees a slot that is still held under {@code holdId}. Returns the freed slot, or {@code null}
+     * if the hold was confirmed or released in the meantime.
+     */
+    AppointmentSlot releaseHold(String slotId, String holdId);
+
+    /**
+     * Frees a slot that is still held under {@code holdId} by {@code patientId}. Returns the freed
+     * slot, or {@code null} if the hold is gone or belongs to another patient.
+     */
+    AppointmentSlot releaseHold(String slotId, String holdId, String patientId);
+
+    /**
+     * Reads the next {@code limit} booked slots after {@code afterSlotId} in id order (from the
+     * start when null) and joins each to the appointment that owns it, in one aggregation. Free
+     * slots, most of the collection, are skipped through the (booked, _id) index.
+     */
+    List<SlotOwner> scanSlotOwners(String afterSlotId, int limit);
+
+    /**
+     * A slot with the status of its owning appointment; {@code ownerStatus} is null when the
+     * slot has no owner or the owner does not exist.
+     */
+    record SlotOwner(String slotId, String doctorId, boolean booked, boolean held,
+                     String appointmentId, String ownerStatus) {
+    }
+}
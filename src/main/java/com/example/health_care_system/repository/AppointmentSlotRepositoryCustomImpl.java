@@ -0,0 +1,155 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class AppointmentSlotRepositoryCustomImpl implements AppointmentSlotRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public AppointmentSlot claimSlot(String slotId, String appointmentId) {
+        Query query = Query.query(Criteria.where("id").is(slotId).and("booked").is(false));
+        Update update = new Update()
+                .set("booked", true)
+                .set("appointmentId", appointmentId);
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), AppointmentSlot.class);
+    }
+
+    @Override
+    public AppointmentSlot releaseSlot(String slotId, String appointmentId) {
+        // Slots booked before appointmentId was recorded have no owner, so they match too
+        Query query = Query.query(Criteria.where("id").is(slotId).and("appointmentId").in(appointmentId, null));
+        Update update = new Update()
+                .set("booked", false)
+                .unset("appointmentId");
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), AppointmentSlot.class);
+    }
+
+    @Override
+    public int claimSlots(Map<String, String> appointmentIdsBySlotId) {
+        if (appointmentIdsBySlotId.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AppointmentSlot.class);
+        appointmentIdsBySlotId.forEach((slotId, appointmentId) -> bulk.updateOne(
+                Query.query(Criteria.where("id").is(slotId).and("booked").is(false)),
+                new Update().set("booked", true).set("appointmentId", appointmentId)));
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public int releaseSlots(Map<String, String> appointmentIdsBySlotId) {
+        if (appointmentIdsBySlotId.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AppointmentSlot.class);
+        appointmentIdsBySlotId.forEach((slotId, appointmentId) -> bulk.updateOne(
+                Query.query(Criteria.where("id").is(slotId).and("appointmentId").in(appointmentId, null)),
+                new Update().set("booked", false).unset("appointmentId")));
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public AppointmentSlot holdSlot(String slotId, String holdId, String patientId, LocalDateTime expiresAt) {
+        Query query = Query.query(Criteria.where("id").is(slotId).and("booked").is(false));
+        Update update = new Update()
+                .set("booked", true)
+                .set("appointmentId", holdId)
+                .set("heldBy", patientId)
+                .set("holdExpiresAt", expiresAt);
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), AppointmentSlot.class);
+    }
+
+    @Override
+    public AppointmentSlot confirmHold(String slotId, String holdId, String patientId, LocalDateTime now) {
+        Query query = Query.query(Criteria.where("id").is(slotId)
+                .and("appointmentId").is(holdId)
+                .and("heldBy").is(patientId)
+                .and("holdExpiresAt").gt(now));
+        Update update = new Update()
+                .unset("heldBy")
+                .unset("holdExpiresAt");
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), AppointmentSlot.class);
+    }
+
+    @Override
+    public AppointmentSlot releaseHold(String slotId, String holdId) {
+        return releaseHold(Criteria.where("id").is(slotId)
+                .and("appointmentId").is(holdId)
+                .and("holdExpiresAt").exists(true));
+    }
+
+    @Override
+    public AppointmentSlot releaseHold(String slotId, String holdId, String patientId) {
+        return releaseHold(Criteria.where("id").is(slotId)
+                .and("appointmentId").is(holdId)
+                .and("heldBy").is(patientId)
+                .and("holdExpiresAt").exists(true));
+    }
+
+    private AppointmentSlot releaseHold(Criteria hold) {
+        Query query = Query.query(hold);
+        Update update = new Update()
+                .set("booked", false)
+                .unset("appointmentId")
+                .unset("heldBy")
+                .unset("holdExpiresAt");
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), AppointmentSlot.class);
+    }
+
+    @Override
+    public List<SlotOwner> scanSlotOwners(String afterSlotId, int limit) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        // free slots have nothing to reconcile; the booked_id index keeps each batch to one range
+        Criteria booked = Criteria.where("booked").is(true);
+        if (afterSlotId != null) {
+            Object after = ObjectId.isValid(afterSlotId) ? new ObjectId(afterSlotId) : afterSlotId;
+            booked = booked.and("_id").gt(after);
+        }
+        stages.add(Aggregation.match(booked));
+        stages.add(Aggregation.sort(Sort.Direction.ASC, "_id"));
+        stages.add(Aggregation.limit(limit));
+        // appointmentId is a plain string, while appointment ids are stored as ObjectIds
+        stages.add(context -> new Document("$addFields", new Document("ownerId", new Document("$convert",
+                new Document("input", "$appointmentId").append("to", "objectId")
+                        .append("onError", null).append("onNull", null)))));
+        stages.add(Aggregation.lookup(mongoTemplate.getCollectionName(Appointment.class), "ownerId", "_id", "owner"));
+        stages.add(context -> new Document("$project", new Document("doctorId", 1)
+                .append("booked", 1)
+                .append("appointmentId", 1)
+                .append("holdExpiresAt", 1)
+                .append("ownerStatus", new Document("$arrayElemAt", List.of("$owner.status", 0)))));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(stages),
+                        mongoTemplate.getCollectionName(AppointmentSlot.class), Document.class)
+                .getMappedResults().stream()
+                .map(slot -> new SlotOwner(slot.get("_id").toString(), slot.getString("doctorId"),
+                        slot.getBoolean("booked", false), slot.get("holdExpiresAt") != null,
+                        slot.getString("appointmentId"), slot.getString("ownerStatus")))
+                .toList();
+    }
+}
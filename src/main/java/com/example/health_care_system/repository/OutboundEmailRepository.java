@@ -0,0 +1,11 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.OutboundEmail;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboundEmailRepository extends MongoRepository<OutboundEmail, String>, OutboundEmailRepositoryCustom {
+
+    long countByStatus(String status);
+}
@@ -0,0 +1,29 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.OutboundEmail;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboundEmailRepositoryCustom {
+
+    /**
+     * Atomically claims the mail that has been due longest for {@code owner} until {@code leaseUntil}:
+     * a PENDING mail whose next attempt is due, or a SENDING mail whose previous owner let its lease
+     * lapse. Returns the claimed mail, or {@code null} when nothing is due.
+     */
+    OutboundEmail claimNextDue(String owner, LocalDateTime now, LocalDateTime leaseUntil);
+
+    /**
+     * Hands a mail claimed by {@code owner} back as PENDING, e.g. when the local queue is full.
+     * Returns false if the claim had already passed to someone else.
+     */
+    boolean releaseClaim(String emailId, String owner);
+
+    /**
+     * Writes back the outcome of mails sent under {@code owner}'s claim and ends the claim. Only
+     * mails still SENDING under that claim are updated, so a mail another node took over after
+     * the lease lapsed keeps that node's state. Returns the number of mails updated.
+     */
+    int completeClaims(List<OutboundEmail> emails, String owner);
+}
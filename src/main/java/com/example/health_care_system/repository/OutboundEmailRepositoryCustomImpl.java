@@ -0,0 +1,73 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.OutboundEmail;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class OutboundEmailRepositoryCustomImpl implements OutboundEmailRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public OutboundEmail claimNextDue(String owner, LocalDateTime now, LocalDateTime leaseUntil) {
+        Query query = Query.query(new Criteria().orOperator(
+                        Criteria.where("status").is("PENDING").and("nextAttemptAt").lte(now),
+                        Criteria.where("status").is("SENDING").and("leaseExpiresAt").lte(now)))
+                .with(Sort.by("nextAttemptAt"));
+        Update update = new Update()
+                .set("status", "SENDING")
+                .set("claimedBy", owner)
+                .set("leaseExpiresAt", leaseUntil);
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), OutboundEmail.class);
+    }
+
+    @Override
+    public boolean releaseClaim(String emailId, String owner) {
+        Query query = Query.query(Criteria.where("id").is(emailId)
+                .and("status").is("SENDING")
+                .and("claimedBy").is(owner));
+        Update update = new Update()
+                .set("status", "PENDING")
+                .unset("claimedBy")
+                .unset("leaseExpiresAt");
+        return mongoTemplate.updateFirst(query, update, OutboundEmail.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public int completeClaims(List<OutboundEmail> emails, String owner) {
+        if (emails.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboundEmail.class);
+        for (OutboundEmail email : emails) {
+            Update update = new Update()
+                    .set("status", email.getStatus())
+                    .set("attempts", email.getAttempts())
+                    .set("nextAttemptAt", email.getNextAttemptAt())
+                    .set("lastError", email.getLastError())
+                    .set("sentAt", email.getSentAt())
+                    .set("completedAt", email.getCompletedAt())
+                    .unset("claimedBy")
+                    .unset("leaseExpiresAt");
+            // a completed mail no longer needs its body, which may hold a reset link
+            if (email.getBody() == null) {
+                update.unset("body");
+            }
+            bulk.updateOne(Query.query(Criteria.where("id").is(email.getId())
+                    .and("status").is("SENDING")
+                    .and("claimedBy").is(owner)), update);
+        }
+        return bulk.execute().getModifiedCount();
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.health_care_system.repository;
 
 import com.example.health_care_system.model.PasswordResetToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +24,15 @@ public interface PasswordResetTokenRepository extends MongoRepository<PasswordRe
     void deleteByExpiryDateBefore(LocalDateTime dateTime);
 
     void deleteByUsedTrue();
+
+    // Bounded id-only lookups for the batched purge
+    List<IdOnly> findByExpiryDateBefore(LocalDateTime dateTime, Pageable pageable);
+
+    List<IdOnly> findByUsedTrue(Pageable pageable);
+
+    long deleteByIdIn(Collection<String> ids);
+
+    interface IdOnly {
+        String getId();
+    }
 }
\ No newline at end of file
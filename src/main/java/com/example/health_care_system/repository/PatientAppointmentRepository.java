@@ -0,0 +1,14 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.PatientAppointment;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PatientAppointmentRepository extends MongoRepository<PatientAppointment, String>,
+        PatientAppointmentRepositoryCustom {
+    List<PatientAppointment> findByPatientIdOrderByStartTimeDesc(String patientId);
+
+    long deleteBySyncedAtBefore(LocalDateTime syncedAt);
+}
@@ -0,0 +1,13 @@
+package com.example.health_care_system.repository;
+
+import java.util.Collection;
+
+public interface PatientAppointmentRepositoryCustom {
+
+    /**
+     * Sets the status in place. Returns false when there is no read-model entry yet.
+     */
+    boolean updateStatus(String appointmentId, String status);
+
+    long updateStatuses(Collection<String> appointmentIds, String status);
+}
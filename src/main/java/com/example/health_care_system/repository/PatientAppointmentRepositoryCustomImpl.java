@@ -0,0 +1,38 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.PatientAppointment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class PatientAppointmentRepositoryCustomImpl implements PatientAppointmentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean updateStatus(String appointmentId, String status) {
+        Query query = Query.query(Criteria.where("id").is(appointmentId));
+        Update update = new Update()
+                .set("status", status)
+                .set("syncedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, PatientAppointment.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public long updateStatuses(Collection<String> appointmentIds, String status) {
+        if (appointmentIds.isEmpty()) {
+            return 0;
+        }
+        Query query = Query.query(Criteria.where("id").in(appointmentIds));
+        Update update = new Update()
+                .set("status", status)
+                .set("syncedAt", LocalDateTime.now());
+        return mongoTemplate.updateMulti(query, update, PatientAppointment.class).getModifiedCount();
+    }
+}
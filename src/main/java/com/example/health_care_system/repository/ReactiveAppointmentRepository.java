@@ -0,0 +1,10 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.Appointment;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveAppointmentRepository extends ReactiveMongoRepository<Appointment, String> {
+
+    Flux<Appointment> findByPatientIdOrderByCreatedAtDescIdDesc(String patientId);
+}
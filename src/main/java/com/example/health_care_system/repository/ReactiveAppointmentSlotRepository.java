@@ -0,0 +1,13 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.AppointmentSlot;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+public interface ReactiveAppointmentSlotRepository extends ReactiveMongoRepository<AppointmentSlot, String> {
+
+    Flux<AppointmentSlot> findByDoctorIdAndBookedFalseAndStartTimeGreaterThanEqualOrderByStartTimeAsc(String doctorId,
+                                                                                                     LocalDateTime from);
+}
@@ -0,0 +1,18 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.ScheduleTemplate;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ScheduleTemplateRepository extends MongoRepository<ScheduleTemplate, String> {
+
+    // Backed by a live cursor, must be closed by the caller
+    Stream<ScheduleTemplate> streamByActiveTrue();
+
+    List<ScheduleTemplate> findByDoctorIdIn(Collection<String> doctorIds);
+}
@@ -4,6 +4,7 @@ import com.example.health_care_system.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,6 +14,21 @@ public interface UserRepository extends MongoRepository<User, String> {
 
     Optional<User> findByEmail(String email);
 
+    // Single $or query for login identifiers; both fields are unique, so at most two users match
+    List<User> findByUsernameOrEmail(String username, String email);
+
+    /**
+     * The user signing in with {@code usernameOrEmail}. When it is one user's username and
+     * another user's email, the username match wins.
+     */
+    default Optional<User> findByLogin(String usernameOrEmail) {
+        List<User> matches = findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
+        return matches.stream()
+                .filter(user -> usernameOrEmail.equals(user.getUsername()))
+                .findFirst()
+                .or(() -> matches.stream().findFirst());
+    }
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
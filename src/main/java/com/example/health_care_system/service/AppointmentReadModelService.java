@@ -0,0 +1,161 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.model.Doctor;
+import com.example.health_care_system.model.PatientAppointment;
+import com.example.health_care_system.repository.AppointmentRepository;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import com.example.health_care_system.repository.PatientAppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the patient_appointments read model. Booking and cancelling update it in step
+ * with the appointment; a failed write is logged and left for {@link #rebuild()} to repair,
+ * since the appointment itself is already stored.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AppointmentReadModelService {
+
+    private final PatientAppointmentRepository patientAppointmentRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentSlotRepository slotRepository;
+    private final DoctorService doctorService;
+
+    @Value("${app.appointments.read-model.rebuild-batch-size:500}")
+    private int rebuildBatchSize;
+
+    public List<PatientAppointment> getPatientAppointments(String patientId) {
+        return patientAppointmentRepository.findByPatientIdOrderByStartTimeDesc(patientId);
+    }
+
+    public void recordBooked(Appointment appointment, AppointmentSlot slot) {
+        try {
+            Doctor doctor = doctorService.getDoctorById(appointment.getDoctorId());
+            patientAppointmentRepository.save(toView(appointment, slot, doctor, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("Could not record appointment {} in the read model", appointment.getId(), e);
+        }
+    }
+
+    /**
+     * Bulk variant of {@link #recordBooked}: one insertMany for all entries.
+     */
+    public void recordBookedAll(List<Appointment> appointments, Map<String, AppointmentSlot> slotsById) {
+        try {
+            Map<String, Doctor> doctors = doctorService.getDoctorsByIds(
+                    appointments.stream().map(Appointment::getDoctorId).toList());
+            LocalDateTime now = LocalDateTime.now();
+            patientAppointmentRepository.insert(appointments.stream()
+                    .map(appointment -> toView(appointment, slotsById.get(appointment.getSlotId()),
+                            doctors.get(appointment.getDoctorId()), now))
+                    .toList());
+        } catch (RuntimeException e) {
+            log.warn("Could not record {} appointment(s) in the read model", appointments.size(), e);
+        }
+    }
+
+    public void recordStatuses(Collection<String> appointmentIds, String status) {
+        try {
+            patientAppointmentRepository.updateStatuses(appointmentIds, status);
+        } catch (RuntimeException e) {
+            log.warn("Could not update {} appointment(s) in the read model", appointmentIds.size(), e);
+        }
+    }
+
+    public void recordStatus(Appointment appointment) {
+        try {
+            if (!patientAppointmentRepository.updateStatus(appointment.getId(), appointment.getStatus())) {
+                // written before the read model existed, build its entry from the source data
+                AppointmentSlot slot = slotRepository.findById(appointment.getSlotId()).orElse(null);
+                Doctor doctor = doctorService.getDoctorById(appointment.getDoctorId());
+                patientAppointmentRepository.save(toView(appointment, slot, doctor, LocalDateTime.now()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not update appointment {} in the read model", appointment.getId(), e);
+        }
+    }
+
+    /**
+     * Rebuilds the whole read model from appointments, slots and doctors in batches,
+     * then removes entries whose appointment no longer exists. Returns the entries written.
+     */
+    public long rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long written = 0;
+        try (Stream<Appointment> appointments = appointmentRepository.streamAllBy()) {
+            Iterator<Appointment> it = appointments.iterator();
+            List<Appointment> batch = new ArrayList<>(rebuildBatchSize);
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == rebuildBatchSize || !it.hasNext()) {
+                    written += rebuildBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        long removed = patientAppointmentRepository.deleteBySyncedAtBefore(startedAt);
+        log.info("Rebuilt appointment read model: {} entries written, {} orphans removed", written, removed);
+        return written;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (patientAppointmentRepository.count() == 0 && appointmentRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private int rebuildBatch(List<Appointment> batch) {
+        // one query for the batch's slots and one cache-backed lookup for its doctors
+        Map<String, AppointmentSlot> slots = slotRepository.findAllById(
+                        batch.stream().map(Appointment::getSlotId).distinct().toList()).stream()
+                .collect(Collectors.toMap(AppointmentSlot::getId, Function.identity()));
+        Map<String, Doctor> doctors = doctorService.getDoctorsByIds(
+                batch.stream().map(Appointment::getDoctorId).toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PatientAppointment> views = batch.stream()
+                .map(appointment -> toView(appointment, slots.get(appointment.getSlotId()),
+                        doctors.get(appointment.getDoctorId()), now))
+                .toList();
+        patientAppointmentRepository.saveAll(views);
+        return views.size();
+    }
+
+    private static PatientAppointment toView(Appointment appointment, AppointmentSlot slot, Doctor doctor,
+                                             LocalDateTime syncedAt) {
+        PatientAppointment view = new PatientAppointment();
+        view.setId(appointment.getId());
+        view.setPatientId(appointment.getPatientId());
+        view.setDoctorId(appointment.getDoctorId());
+        view.setDoctorName(doctor != null ? doctor.getName() : appointment.getDoctorId());
+        view.setSpecialization(doctor != null ? doctor.getSpecialization() : null);
+        view.setSlotId(appointment.getSlotId());
+        if (slot != null) {
+            view.setStartTime(slot.getStartTime());
+            view.setEndTime(slot.getEndTime());
+        }
+        view.setStatus(appointment.getStatus());
+        view.setCreatedAt(appointment.getCreatedAt());
+        view.setSyncedAt(syncedAt);
+        return view;
+    }
+}
@@ -1,12 +1,33 @@
 package com.example.health_care_system.service;
 
+import com.example.health_care_system.dto.AppointmentPage;
+import com.example.health_care_system.dto.AvailableSlot;
+import com.example.health_care_system.dto.BookingResult;
+import com.example.health_care_system.dto.BulkMode;
+import com.example.health_care_system.dto.BulkOperationResult;
+import com.example.health_care_system.dto.SlotEvent;
 import com.example.health_care_system.model.*;
 import com.example.health_care_system.repository.*;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -14,49 +35,345 @@ public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
     private final AppointmentSlotRepository slotRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final AppointmentReadModelService readModel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
-    @Transactional
-    public Appointment bookAppointment(String patientId, String slotId, String doctorId) {
-        AppointmentSlot slot = slotRepository.findById(slotId)
-                .orElseThrow(() -> new RuntimeException("Slot not found"));
+    @Value("${app.appointments.page.default-size:20}")
+    private int defaultPageSize;
 
-        if (slot.isBooked()) {
-            throw new RuntimeException("This slot is already booked!");
+    @Value("${app.appointments.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.appointments.bulk.max-items:200}")
+    private int maxBulkItems;
+
+    @Value("${app.appointments.earliest.default-limit:10}")
+    private int defaultEarliestLimit;
+
+    @Value("${app.appointments.earliest.max-limit:100}")
+    private int maxEarliestLimit;
+
+    public Appointment bookAppointment(String patientId, String slotId) {
+        BookingResult result = tryBookAppointment(patientId, slotId);
+        return switch (result.getOutcome()) {
+            case SLOT_NOT_FOUND -> throw new RuntimeException("Slot not found");
+            case SLOT_TAKEN -> throw new RuntimeException("This slot is already booked!");
+            case BOOKED -> result.getAppointment();
+        };
+    }
+
+    /**
+     * Claims the slot with a single conditional update, so two patients can never
+     * both book it. The appointment id is generated up front so the slot records its owner,
+     * and the doctor is taken from the claimed slot rather than from the request.
+     */
+    public BookingResult tryBookAppointment(String patientId, String slotId) {
+        BookingResult result = claimAndInsert(patientId, slotId);
+        meterRegistry.counter("appointments.bookings", "outcome", result.getOutcome().name().toLowerCase()).increment();
+        return result;
+    }
+
+    private BookingResult claimAndInsert(String patientId, String slotId) {
+        String appointmentId = new ObjectId().toHexString();
+
+        AppointmentSlot slot = slotRepository.claimSlot(slotId, appointmentId);
+        if (slot == null) {
+            // Only the failure path pays for the extra lookup
+            AppointmentSlot taken = slotRepository.findById(slotId).orElse(null);
+            if (taken == null) {
+                return BookingResult.slotNotFound();
+            }
+            availabilityIndex.remove(taken.getDoctorId(), slotId);
+            return BookingResult.slotTaken();
         }
+        return BookingResult.booked(insertForSlot(patientId, slot, appointmentId));
+    }
+
+    /**
+     * Stores the appointment for a slot that {@link SlotHoldService} has already booked under
+     * {@code appointmentId} by confirming a hold.
+     */
+    public Appointment bookHeldSlot(String patientId, AppointmentSlot slot, String appointmentId) {
+        Appointment saved = insertForSlot(patientId, slot, appointmentId);
+        meterRegistry.counter("appointments.bookings", "outcome", "booked").increment();
+        return saved;
+    }
 
-        slot.setBooked(true);
-        slotRepository.save(slot);
+    private Appointment insertForSlot(String patientId, AppointmentSlot slot, String appointmentId) {
+        availabilityIndex.markBooked(slot);
 
         Appointment appointment = new Appointment();
-        appointment.setDoctorId(doctorId);
+        appointment.setId(appointmentId);
+        appointment.setDoctorId(slot.getDoctorId());
         appointment.setPatientId(patientId);
-        appointment.setSlotId(slotId);
+        appointment.setSlotId(slot.getId());
         appointment.setStatus("BOOKED");
 
-        return appointmentRepository.save(appointment);
+        Appointment saved;
+        try {
+            saved = appointmentRepository.insert(appointment);
+        } catch (RuntimeException e) {
+            // give the slot back if the appointment could not be stored
+            AppointmentSlot released = slotRepository.releaseSlot(slot.getId(), appointmentId);
+            if (released != null) {
+                availabilityIndex.markFree(released);
+            }
+            throw e;
+        }
+        readModel.recordBooked(saved, slot);
+        eventPublisher.publishEvent(SlotEvent.booked(slot));
+        return saved;
     }
 
     public void cancelAppointment(String appointmentId) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
 
+        if ("CANCELLED".equals(appointment.getStatus())) {
+            return;
+        }
+
+        // cancel first: the slot may be re-booked as soon as it is released
         appointment.setStatus("CANCELLED");
+        appointmentRepository.save(appointment);
+        readModel.recordStatus(appointment);
 
-        // free up the slot
-        AppointmentSlot slot = slotRepository.findById(appointment.getSlotId())
-                .orElseThrow(() -> new RuntimeException("Slot not found"));
+        // free up the slot, unless it has since been claimed by another appointment
+        AppointmentSlot slot = slotRepository.releaseSlot(appointment.getSlotId(), appointment.getId());
+        if (slot != null) {
+            availabilityIndex.markFree(slot);
+            eventPublisher.publishEvent(SlotEvent.released(slot));
+        }
+    }
 
-        slot.setBooked(false);
-        slotRepository.save(slot);
+    /**
+     * Books many slots for one patient with a handful of round trips: one bulk claim, one
+     * read-back, one insertMany. In ALL_OR_NOTHING mode any slot that cannot be claimed
+     * releases the others again and nothing is booked. Slots claimed and then released are
+     * briefly unavailable to other patients, as there is no multi-document transaction.
+     */
+    public BulkOperationResult bookAppointments(String patientId, List<String> slotIds, BulkMode mode) {
+        List<String> ids = distinctIds(slotIds);
+        Map<String, String> appointmentIds = new LinkedHashMap<>();
+        ids.forEach(slotId -> appointmentIds.put(slotId, new ObjectId().toHexString()));
 
-        appointmentRepository.save(appointment);
+        slotRepository.claimSlots(appointmentIds);
+        Map<String, AppointmentSlot> slots = new HashMap<>();
+        slotRepository.findAllById(ids).forEach(slot -> slots.put(slot.getId(), slot));
+
+        Map<String, AppointmentSlot> claimed = new LinkedHashMap<>();
+        for (String slotId : ids) {
+            AppointmentSlot slot = slots.get(slotId);
+            if (slot != null && appointmentIds.get(slotId).equals(slot.getAppointmentId())) {
+                claimed.put(slotId, slot);
+            } else if (slot != null) {
+                availabilityIndex.remove(slot.getDoctorId(), slotId);
+            }
+        }
+
+        boolean applied = mode != BulkMode.ALL_OR_NOTHING || claimed.size() == ids.size();
+        if (!applied) {
+            slotRepository.releaseSlots(subMap(appointmentIds, claimed.keySet()));
+        } else if (!claimed.isEmpty()) {
+            insertClaimed(patientId, claimed, appointmentIds);
+        }
+
+        List<BulkOperationResult.Item> items = new ArrayList<>(ids.size());
+        for (String slotId : ids) {
+            BulkOperationResult.Outcome outcome;
+            if (claimed.containsKey(slotId)) {
+                outcome = applied ? BulkOperationResult.Outcome.BOOKED : BulkOperationResult.Outcome.NOT_APPLIED;
+            } else {
+                outcome = slots.containsKey(slotId)
+                        ? BulkOperationResult.Outcome.SLOT_TAKEN : BulkOperationResult.Outcome.SLOT_NOT_FOUND;
+            }
+            String appointmentId = outcome == BulkOperationResult.Outcome.BOOKED ? appointmentIds.get(slotId) : null;
+            items.add(new BulkOperationResult.Item(slotId, outcome, appointmentId));
+            meterRegistry.counter("appointments.bookings", "outcome", outcome.name().toLowerCase()).increment();
+        }
+        return new BulkOperationResult(mode, applied, items);
+    }
+
+    private void insertClaimed(String patientId, Map<String, AppointmentSlot> claimed, Map<String, String> appointmentIds) {
+        List<Appointment> appointments = new ArrayList<>(claimed.size());
+        for (AppointmentSlot slot : claimed.values()) {
+            Appointment appointment = new Appointment();
+            appointment.setId(appointmentIds.get(slot.getId()));
+            appointment.setDoctorId(slot.getDoctorId());
+            appointment.setPatientId(patientId);
+            appointment.setSlotId(slot.getId());
+            appointment.setStatus("BOOKED");
+            appointments.add(appointment);
+        }
+
+        List<Appointment> saved;
+        try {
+            saved = appointmentRepository.insert(appointments);
+        } catch (RuntimeException e) {
+            // undo a partial insertMany, then give every claimed slot back
+            appointmentRepository.deleteAllById(appointments.stream().map(Appointment::getId).toList());
+            slotRepository.releaseSlots(subMap(appointmentIds, claimed.keySet()));
+            throw e;
+        }
+
+        claimed.values().forEach(availabilityIndex::markBooked);
+        readModel.recordBookedAll(saved, claimed);
+        claimed.values().forEach(slot -> eventPublisher.publishEvent(SlotEvent.booked(slot)));
+    }
+
+    /**
+     * Cancels many appointments with one status update and one bulk slot release. In
+     * ALL_OR_NOTHING mode the request is rejected unchanged when any appointment is missing
+     * or already cancelled.
+     */
+    public BulkOperationResult cancelAppointments(List<String> appointmentIds, BulkMode mode) {
+        List<String> ids = distinctIds(appointmentIds);
+        Map<String, Appointment> found = new HashMap<>();
+        appointmentRepository.findAllById(ids).forEach(appointment -> found.put(appointment.getId(), appointment));
+
+        List<Appointment> cancellable = ids.stream()
+                .map(found::get)
+                .filter(appointment -> appointment != null && !"CANCELLED".equals(appointment.getStatus()))
+                .toList();
+        boolean applied = mode != BulkMode.ALL_OR_NOTHING || cancellable.size() == ids.size();
+
+        if (applied && !cancellable.isEmpty()) {
+            List<String> cancelIds = cancellable.stream().map(Appointment::getId).toList();
+            // cancel first: the slots may be re-booked as soon as they are released
+            appointmentRepository.cancelAll(cancelIds);
+            readModel.recordStatuses(cancelIds, "CANCELLED");
+
+            Map<String, String> release = new LinkedHashMap<>();
+            cancellable.forEach(appointment -> release.put(appointment.getSlotId(), appointment.getId()));
+            slotRepository.releaseSlots(release);
+            for (AppointmentSlot slot : slotRepository.findAllById(release.keySet())) {
+                if (!slot.isBooked()) {
+                    availabilityIndex.markFree(slot);
+                    eventPublisher.publishEvent(SlotEvent.released(slot));
+                }
+            }
+        }
+
+        List<BulkOperationResult.Item> items = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Appointment appointment = found.get(id);
+            BulkOperationResult.Outcome outcome;
+            if (appointment == null) {
+                outcome = BulkOperationResult.Outcome.NOT_FOUND;
+            } else if ("CANCELLED".equals(appointment.getStatus())) {
+                outcome = BulkOperationResult.Outcome.ALREADY_CANCELLED;
+            } else {
+                outcome = applied ? BulkOperationResult.Outcome.CANCELLED : BulkOperationResult.Outcome.NOT_APPLIED;
+            }
+            items.add(new BulkOperationResult.Item(id, outcome, appointment != null ? id : null));
+        }
+        return new BulkOperationResult(mode, applied, items);
+    }
+
+    private List<String> distinctIds(List<String> ids) {
+        List<String> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.size() > maxBulkItems) {
+            throw new IllegalArgumentException("At most " + maxBulkItems + " items per request");
+        }
+        return distinct;
+    }
+
+    private static Map<String, String> subMap(Map<String, String> map, Set<String> keys) {
+        Map<String, String> result = new LinkedHashMap<>();
+        keys.forEach(key -> result.put(key, map.get(key)));
+        return result;
     }
 
     public List<AppointmentSlot> getAvailableSlots(String doctorId) {
-        return slotRepository.findByDoctorIdAndBookedFalse(doctorId);
+        return getAvailableSlots(doctorId, null, null);
+    }
+
+    /**
+     * Free slots for a doctor starting within [from, to), served from the in-memory index.
+     * {@code from} defaults to now and {@code to} is open-ended when null.
+     */
+    public List<AppointmentSlot> getAvailableSlots(String doctorId, LocalDateTime from, LocalDateTime to) {
+        return availabilityIndex.findFreeSlots(doctorId, from != null ? from : LocalDateTime.now(), to);
+    }
+
+    /**
+     * The earliest free slots across the given doctors (e.g. all doctors of a specialization),
+     * starting within [from, to). {@code from} defaults to now and {@code to} is open-ended when null.
+     */
+    public List<AvailableSlot> getEarliestAvailableSlots(Collection<Doctor> doctors, LocalDateTime from,
+                                                         LocalDateTime to, Integer limit) {
+        int max = limit == null || limit <= 0 ? defaultEarliestLimit : Math.min(limit, maxEarliestLimit);
+        Map<String, Doctor> doctorsById = new LinkedHashMap<>();
+        doctors.forEach(doctor -> doctorsById.put(doctor.getId(), doctor));
+        return availabilityIndex.findEarliestFreeSlots(doctorsById.keySet(), from != null ? from : LocalDateTime.now(),
+                        to, max).stream()
+                .map(slot -> AvailableSlot.of(slot, doctorsById.get(slot.getDoctorId())))
+                .toList();
+    }
+
+    /**
+     * Version tag of the result of {@link #getAvailableSlots(String, LocalDateTime, LocalDateTime)}
+     * for the same doctor and {@code from}, answered from the index without a query.
+     */
+    public String getAvailabilityTag(String doctorId, LocalDateTime from) {
+        return availabilityIndex.versionTag(doctorId, from != null ? from : LocalDateTime.now());
     }
 
     public List<Appointment> getAppointmentsByPatient(String patientId) {
         return appointmentRepository.findByPatientId(patientId);
     }
+
+    /**
+     * One page of a patient's history, newest first. {@code cursor} is the
+     * {@code nextCursor} of the previous page, or null for the first page.
+     */
+    public AppointmentPage getAppointmentsByPatient(String patientId, String cursor, Integer size) {
+        int limit = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+
+        LocalDateTime afterCreatedAt = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            afterCreatedAt = LocalDateTime.parse(parts[0]);
+            afterId = parts[1];
+        }
+
+        // fetch one extra to learn whether another page exists
+        List<Appointment> items = appointmentRepository.findPatientPage(patientId, afterCreatedAt, afterId, limit + 1);
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            Appointment last = items.get(limit - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new AppointmentPage(items, nextCursor);
+    }
+
+    /**
+     * Full history as a cursor-backed stream; the caller must close it.
+     */
+    public Stream<Appointment> streamAppointmentsByPatient(String patientId) {
+        return appointmentRepository.findByPatientIdOrderByCreatedAtDescIdDesc(patientId);
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, String id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2 || parts[1].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
 }
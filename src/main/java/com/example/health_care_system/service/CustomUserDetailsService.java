@@ -3,27 +3,46 @@ package com.example.health_care_system.service;
 import com.example.health_care_system.model.User;
 import com.example.health_care_system.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Set;
+
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     @Autowired
     private UserRepository userRepository;
 
+    // Usernames that also get the ADMIN role (actuator metrics and maintenance endpoints)
+    @Value("${app.security.admin-users:}")
+    private Set<String> adminUsers = Set.of();
+
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(usernameOrEmail)
-                .or(() -> userRepository.findByEmail(usernameOrEmail))
+        User user = userRepository.findByLogin(usernameOrEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail));
 
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getUsername())
                 .password(user.getPassword())
-                .roles("USER") // You can customize roles based on your requirements
+                .authorities(authoritiesOf(user))
                 .build();
     }
+
+    /**
+     * The authorities a signed-in user is granted, for paths that build a session without going
+     * through {@link #loadUserByUsername}.
+     */
+    public List<GrantedAuthority> authoritiesOf(User user) {
+        return adminUsers.contains(user.getUsername())
+                ? AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN")
+                : AuthorityUtils.createAuthorityList("ROLE_USER");
+    }
 }
\ No newline at end of file
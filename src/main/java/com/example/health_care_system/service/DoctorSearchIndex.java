@@ -0,0 +1,131 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.Doctor;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the words of each doctor's name and specialization. Words are kept in
+ * a sorted map, so all words starting with a prefix form one contiguous range. A query matches
+ * a doctor when every query word is a prefix of one of the doctor's words. Lookups run without
+ * locking; writes are serialized and touch only the words of the changed doctor.
+ */
+public class DoctorSearchIndex {
+
+    private static final Comparator<Doctor> BY_NAME =
+            Comparator.comparing(Doctor::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(Doctor::getId);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, Entry> doctors = new ConcurrentHashMap<>();
+
+    public static DoctorSearchIndex of(Collection<Doctor> doctors) {
+        DoctorSearchIndex index = new DoctorSearchIndex();
+        doctors.forEach(index::put);
+        return index;
+    }
+
+    public synchronized void put(Doctor doctor) {
+        remove(doctor.getId());
+        Set<String> words = new LinkedHashSet<>(words(doctor.getName()));
+        words.addAll(words(doctor.getSpecialization()));
+        for (String word : words) {
+            postings.computeIfAbsent(word, key -> ConcurrentHashMap.newKeySet()).add(doctor.getId());
+        }
+        doctors.put(doctor.getId(), new Entry(doctor, words));
+    }
+
+    public synchronized void remove(String id) {
+        Entry entry = doctors.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String word : entry.words()) {
+            Set<String> ids = postings.get(word);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(word);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return doctors.size();
+    }
+
+    /**
+     * One page of the doctors matching {@code query}, ordered by name. A blank query matches everyone.
+     */
+    public Result search(String query, int offset, int limit) {
+        List<String> terms = words(query);
+        Set<String> matches = null;
+        if (terms.isEmpty()) {
+            matches = doctors.keySet();
+        } else {
+            for (String term : terms) {
+                Set<String> termMatches = new HashSet<>();
+                // every word starting with term: [term, term + U+FFFF)
+                for (Set<String> ids : postings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                    termMatches.addAll(ids);
+                }
+                if (matches != null) {
+                    termMatches.retainAll(matches);
+                }
+                matches = termMatches;
+                if (matches.isEmpty()) {
+                    break;
+                }
+            }
+        }
+
+        List<Doctor> sorted = new ArrayList<>(matches.size());
+        for (String id : matches) {
+            Entry entry = doctors.get(id);
+            if (entry != null) {
+                sorted.add(entry.doctor());
+            }
+        }
+        sorted.sort(BY_NAME);
+        int from = Math.min(offset, sorted.size());
+        int to = Math.min(from + limit, sorted.size());
+        return new Result(List.copyOf(sorted.subList(from, to)), sorted.size());
+    }
+
+    static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        // "Müller" and "muller" index the same way
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> words = new ArrayList<>();
+        for (String word : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    public record Result(List<Doctor> doctors, int total) {
+    }
+
+    private record Entry(Doctor doctor, Set<String> words) {
+    }
+}
@@ -1,22 +1,213 @@
 package com.example.health_care_system.service;
 
+import com.example.health_care_system.cache.TtlCache;
+import com.example.health_care_system.dto.DoctorSearchPage;
 import com.example.health_care_system.model.Doctor;
 import com.example.health_care_system.repository.DoctorRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
 public class DoctorService {
+    private static final String ALL_DOCTORS = "all";
+    private static final Comparator<Doctor> BY_NAME =
+            Comparator.comparing(Doctor::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
     private final DoctorRepository doctorRepository;
 
+    @Value("${app.cache.doctors.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.cache.doctors.ttl:PT5M}")
+    private Duration ttl;
+
+    @Value("${app.doctors.search.max-age:PT5M}")
+    private Duration searchMaxAge;
+
+    @Value("${app.doctors.search.default-size:20}")
+    private int defaultSearchSize;
+
+    @Value("${app.doctors.search.max-size:100}")
+    private int maxSearchSize;
+
+    // id -> Doctor, plus the full name-sorted directory under a single key
+    private TtlCache<String, Doctor> doctorsById;
+    private TtlCache<String, List<Doctor>> directory;
+
+    // Bumped on every write and once per ttl; see getDirectoryTag
+    private final AtomicLong directoryVersion = new AtomicLong();
+    private volatile long directoryVersionAt = System.nanoTime();
+    private final String instanceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    // Built from the directory on first search, then updated per doctor by saveDoctor and deleteDoctor
+    private volatile DoctorSearchIndex searchIndex;
+    private volatile long searchIndexBuiltAt;
+
+    @PostConstruct
+    void initCaches() {
+        doctorsById = new TtlCache<>(maxSize, ttl);
+        directory = new TtlCache<>(1, ttl);
+    }
+
     public List<Doctor> getAllDoctors() {
-        return doctorRepository.findAll();
+        List<Doctor> doctors = directory.get(ALL_DOCTORS);
+        if (doctors != null) {
+            return doctors;
+        }
+
+        doctors = doctorRepository.findAll().stream().sorted(BY_NAME).toList();
+        // Only keep the whole directory in memory while it fits the configured bound
+        if (doctors.size() <= maxSize) {
+            directory.put(ALL_DOCTORS, doctors);
+            doctors.forEach(doctor -> doctorsById.put(doctor.getId(), doctor));
+        }
+        return doctors;
+    }
+
+    public List<Doctor> getDoctorsBySpecialization(String specialization) {
+        if (specialization == null || specialization.isBlank()) {
+            return List.of();
+        }
+        String wanted = specialization.trim();
+        return getAllDoctors().stream()
+                .filter(doctor -> wanted.equalsIgnoreCase(doctor.getSpecialization()))
+                .toList();
     }
 
     public Doctor getDoctorById(String id) {
-        return doctorRepository.findById(id).orElse(null);
+        if (id == null) {
+            return null;
+        }
+        Doctor doctor = doctorsById.get(id);
+        if (doctor == null) {
+            doctor = doctorRepository.findById(id).orElse(null);
+            if (doctor != null) {
+                doctorsById.put(id, doctor);
+            }
+        }
+        return doctor;
+    }
+
+    /**
+     * Resolves many doctors at once: cached entries are served from memory and
+     * all misses are fetched together in a single query.
+     */
+    public Map<String, Doctor> getDoctorsByIds(Collection<String> ids) {
+        Map<String, Doctor> result = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id == null || result.containsKey(id)) {
+                continue;
+            }
+            Doctor doctor = doctorsById.get(id);
+            if (doctor != null) {
+                result.put(id, doctor);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (Doctor doctor : doctorRepository.findAllById(new ArrayList<>(missing))) {
+                doctorsById.put(doctor.getId(), doctor);
+                result.put(doctor.getId(), doctor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Typeahead search on doctor name and specialization: every word of {@code query} must be a
+     * prefix of a word of the doctor's name or specialization. Answered from the in-memory index.
+     */
+    public DoctorSearchPage searchDoctors(String query, Integer page, Integer size) {
+        int limit = size == null || size <= 0 ? defaultSearchSize : Math.min(size, maxSearchSize);
+        int pageNumber = page == null || page < 0 ? 0 : page;
+        DoctorSearchIndex.Result result = searchIndex().search(query, pageNumber * limit, limit);
+        return new DoctorSearchPage(result.doctors(), pageNumber, limit, result.total());
+    }
+
+    // Rebuilt from scratch after max-age to pick up writes made by other nodes
+    private DoctorSearchIndex searchIndex() {
+        DoctorSearchIndex index = searchIndex;
+        if (index != null && System.nanoTime() - searchIndexBuiltAt <= searchMaxAge.toNanos()) {
+            return index;
+        }
+        synchronized (this) {
+            if (searchIndex == index) {
+                searchIndex = DoctorSearchIndex.of(getAllDoctors());
+                searchIndexBuiltAt = System.nanoTime();
+            }
+            return searchIndex;
+        }
+    }
+
+    public Doctor saveDoctor(Doctor doctor) {
+        Doctor saved = doctorRepository.save(doctor);
+        directory.invalidateAll();
+        directoryVersion.incrementAndGet();
+        doctorsById.put(saved.getId(), saved);
+        DoctorSearchIndex index = searchIndex;
+        if (index != null) {
+            index.put(saved);
+        }
+        return saved;
+    }
+
+    public void deleteDoctor(String id) {
+        doctorRepository.deleteById(id);
+        directory.invalidateAll();
+        directoryVersion.incrementAndGet();
+        doctorsById.invalidate(id);
+        DoctorSearchIndex index = searchIndex;
+        if (index != null) {
+            index.remove(id);
+        }
+    }
+
+    public void invalidateCache() {
+        directory.invalidateAll();
+        directoryVersion.incrementAndGet();
+        doctorsById.invalidateAll();
+        searchIndex = null;
+    }
+
+    /**
+     * Opaque tag for the current doctor directory, for conditional requests. Changes on every
+     * write and at least once per cache ttl, so writes made on other nodes show up as quickly
+     * as they do in the cached directory. Never loads the directory itself.
+     */
+    public String getDirectoryTag() {
+        long now = System.nanoTime();
+        if (now - directoryVersionAt > ttl.toNanos()) {
+            // the next 200 must carry a directory read after the new tag was issued
+            directory.invalidateAll();
+            directoryVersion.incrementAndGet();
+            directoryVersionAt = now;
+        }
+        return instanceId + "-" + directoryVersion.get();
+    }
+
+    public TtlCache.Stats getDoctorCacheStats() {
+        return doctorsById.stats();
+    }
+
+    public TtlCache.Stats getDirectoryCacheStats() {
+        return directory.stats();
     }
 }
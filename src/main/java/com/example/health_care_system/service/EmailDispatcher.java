@@ -0,0 +1,305 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.OutboundEmail;
+import com.example.health_care_system.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outbound mail pipeline. A mail is only queued after this node has claimed it in Mongo
+ * (status SENDING with a lease), then a small pool of workers sends batches of claimed
+ * messages over one SMTP connection each. Failed mails go back to PENDING with exponential
+ * backoff; anything PENDING and due, or SENDING under a lapsed lease (queue full, restart,
+ * crashed node), is claimed again by the periodic sweep on whichever node gets it first.
+ * SENT and FAILED mails drop their body and expire through a TTL index on completedAt.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDispatcher {
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${app.mail.dispatch.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${app.mail.dispatch.workers:2}")
+    private int workers;
+
+    @Value("${app.mail.dispatch.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.mail.dispatch.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.mail.dispatch.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${app.mail.dispatch.max-backoff:PT30M}")
+    private Duration maxBackoff;
+
+    // How long a claimed mail is reserved for this node; must cover the queue wait plus one send
+    @Value("${app.mail.dispatch.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private BlockingQueue<OutboundEmail> queue;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    // identifies this node's claims
+    private final String nodeId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    // ids currently queued or being sent, so the sweep does not enqueue them twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("mail.queue.size", queue, BlockingQueue::size);
+        if (virtualThreads) {
+            // Workers mostly wait on the queue and on SMTP, which parks a virtual thread cheaply
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mail-dispatch-", 1).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "mail-dispatch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        // Anything not yet sent stays PENDING in Mongo and is recovered on the next start
+        running = false;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Persists the mail and schedules it for sending. Returns without waiting for SMTP.
+     */
+    public OutboundEmail enqueue(String to, String subject, String body) {
+        OutboundEmail email = new OutboundEmail(to, subject, body);
+        // a new mail is claimed as it is written, no other node can have seen it yet
+        email.setStatus("SENDING");
+        email.setClaimedBy(nodeId);
+        email.setLeaseExpiresAt(email.getCreatedAt().plus(lease));
+        email = outboundEmailRepository.save(email);
+        offer(email);
+        return email;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Scheduled(initialDelayString = "${app.mail.dispatch.sweep-interval:PT30S}",
+            fixedDelayString = "${app.mail.dispatch.sweep-interval:PT30S}")
+    public void sweepPending() {
+        int capacity = queue.remainingCapacity();
+        int requeued = 0;
+        while (requeued < capacity) {
+            LocalDateTime now = LocalDateTime.now();
+            OutboundEmail email = outboundEmailRepository.claimNextDue(nodeId, now, now.plus(lease));
+            if (email == null) {
+                break;
+            }
+            // an expired copy still queued here is skipped by the worker, this claim then lapses in turn
+            if (inFlight.contains(email.getId())) {
+                continue;
+            }
+            if (!offer(email)) {
+                break;
+            }
+            requeued++;
+        }
+        if (requeued > 0) {
+            log.info("Re-queued {} pending email(s)", requeued);
+        }
+    }
+
+    private boolean offer(OutboundEmail email) {
+        if (!inFlight.add(email.getId())) {
+            return false;
+        }
+        if (!queue.offer(email)) {
+            inFlight.remove(email.getId());
+            outboundEmailRepository.releaseClaim(email.getId(), nodeId);
+            log.warn("Mail queue full, email {} left pending for the next sweep", email.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private void runWorker() {
+        List<OutboundEmail> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Mail dispatch worker failed on a batch of {} email(s)", batch.size(), e);
+            } finally {
+                batch.forEach(email -> inFlight.remove(email.getId()));
+                batch.clear();
+            }
+        }
+    }
+
+    void sendBatch(List<OutboundEmail> batch) {
+        Map<MimeMessage, OutboundEmail> messages = new IdentityHashMap<>();
+        List<OutboundEmail> claimed = new ArrayList<>(batch.size());
+        List<OutboundEmail> failed = new ArrayList<>();
+        LocalDateTime sendingAt = LocalDateTime.now();
+        for (OutboundEmail email : batch) {
+            // only send under a live claim; a lapsed one may already belong to another node
+            if (!nodeId.equals(email.getClaimedBy()) || email.getLeaseExpiresAt() == null
+                    || !email.getLeaseExpiresAt().isAfter(sendingAt)) {
+                log.warn("Claim on email {} lapsed before it was sent, leaving it to the sweep", email.getId());
+                continue;
+            }
+            claimed.add(email);
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException e) {
+                email.setLastError(e.getMessage());
+                failed.add(email);
+            }
+        }
+
+        Map<Object, Exception> sendFailures = Map.of();
+        if (!messages.isEmpty()) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "success";
+            try {
+                // JavaMailSenderImpl sends the whole array over a single connection
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                outcome = "failure";
+                sendFailures = e.getFailedMessages();
+                if (sendFailures.isEmpty()) {
+                    sendFailures = allFailed(messages, e);
+                }
+            } catch (MailException e) {
+                outcome = "failure";
+                sendFailures = allFailed(messages, e);
+            } finally {
+                sample.stop(meterRegistry.timer("mail.send", "outcome", outcome));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<MimeMessage, OutboundEmail> entry : messages.entrySet()) {
+            OutboundEmail email = entry.getValue();
+            Exception failure = sendFailures.get(entry.getKey());
+            if (failure == null) {
+                email.setStatus("SENT");
+                email.setSentAt(now);
+                email.setCompletedAt(now);
+                email.setBody(null);
+                email.setLastError(null);
+                meterRegistry.counter("mail.messages", "result", "sent").increment();
+                log.info("Email {} sent successfully to: {}", email.getId(), email.getTo());
+            } else {
+                email.setLastError(failure.getMessage());
+                failed.add(email);
+            }
+        }
+
+        failed.forEach(email -> scheduleRetry(email, now));
+        claimed.forEach(email -> {
+            email.setClaimedBy(null);
+            email.setLeaseExpiresAt(null);
+        });
+        if (!claimed.isEmpty()) {
+            int completed = outboundEmailRepository.completeClaims(claimed, nodeId);
+            if (completed < claimed.size()) {
+                log.warn("{} of {} email(s) were taken over by another node before their outcome was saved",
+                        claimed.size() - completed, claimed.size());
+            }
+        }
+    }
+
+    private void scheduleRetry(OutboundEmail email, LocalDateTime now) {
+        email.setAttempts(email.getAttempts() + 1);
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus("FAILED");
+            email.setCompletedAt(now);
+            email.setBody(null);
+            meterRegistry.counter("mail.messages", "result", "failed").increment();
+            log.error("Giving up on email {} to {} after {} attempts: {}",
+                    email.getId(), email.getTo(), email.getAttempts(), email.getLastError());
+            return;
+        }
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(email.getAttempts() - 1, 20));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        email.setStatus("PENDING");
+        email.setNextAttemptAt(now.plus(backoff));
+        meterRegistry.counter("mail.messages", "result", "retry").increment();
+        log.warn("Email {} to {} failed (attempt {}), retrying in {}",
+                email.getId(), email.getTo(), email.getAttempts(), backoff);
+    }
+
+    private MimeMessage toMimeMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getTo());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody());
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, OutboundEmail> messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+}
@@ -2,8 +2,6 @@ package com.example.health_care_system.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
@@ -12,31 +10,22 @@ import lombok.extern.slf4j.Slf4j;
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailDispatcher emailDispatcher;
 
     @Value("${app.base.url:http://localhost:8080}")
     private String baseUrl;
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
     public void sendPasswordResetEmail(String toEmail, String resetToken) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Password Reset Request - Movies App");
-
             String resetUrl = baseUrl + "/reset-password?token=" + resetToken;
             String emailBody = buildEmailBody(resetUrl);
 
-            message.setText(emailBody);
-
-            mailSender.send(message);
-            log.info("Password reset email sent successfully to: {}", toEmail);
+            // Queued for the dispatcher, the SMTP send happens off the request thread
+            emailDispatcher.enqueue(toEmail, "Password Reset Request - Movies App", emailBody);
+            log.info("Password reset email queued for: {}", toEmail);
 
         } catch (Exception e) {
-            log.error("Failed to send password reset email to: {}", toEmail, e);
+            log.error("Failed to queue password reset email to: {}", toEmail, e);
             throw new RuntimeException("Failed to send password reset email. Please try again later.");
         }
     }
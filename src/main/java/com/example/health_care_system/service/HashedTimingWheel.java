@@ -0,0 +1,91 @@
+package com.example.health_care_system.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel for large numbers of short timeouts. A deadline is rounded up to a
+ * tick and the item is kept in the bucket for that tick modulo the wheel size, so scheduling
+ * and cancelling are O(1) and {@link #advance()} only visits the buckets of ticks that have
+ * passed. Items more than one revolution away wait in their bucket until their tick comes round.
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<Set<T>> buckets;
+    private final Map<T, Long> deadlineTicks = new HashMap<>();
+    private final LongSupplier ticker;
+    private final long startedAt;
+    private long currentTick;
+
+    public HashedTimingWheel(Duration tick, int wheelSize) {
+        this(tick, wheelSize, System::nanoTime);
+    }
+
+    HashedTimingWheel(Duration tick, int wheelSize, LongSupplier ticker) {
+        if (tick.isZero() || tick.isNegative() || wheelSize <= 0) {
+            throw new IllegalArgumentException("tick and wheelSize must be positive");
+        }
+        // a power of two, so the bucket index is a mask instead of a division
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickNanos = tick.toNanos();
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new HashSet<>());
+        }
+        this.ticker = ticker;
+        this.startedAt = ticker.getAsLong();
+    }
+
+    /**
+     * Schedules {@code item} to expire after {@code delay}, replacing any earlier deadline for it.
+     */
+    public synchronized void schedule(T item, Duration delay) {
+        cancel(item);
+        long deadline = ticker.getAsLong() - startedAt + Math.max(0, delay.toNanos());
+        long tick = Math.max(currentTick + 1, (deadline + tickNanos - 1) / tickNanos);
+        deadlineTicks.put(item, tick);
+        buckets.get((int) (tick & mask)).add(item);
+    }
+
+    public synchronized boolean cancel(T item) {
+        Long tick = deadlineTicks.remove(item);
+        return tick != null && buckets.get((int) (tick & mask)).remove(item);
+    }
+
+    public synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    /**
+     * Moves the wheel up to the current time and returns the items whose deadline has passed.
+     */
+    public synchronized List<T> advance() {
+        long nowTick = (ticker.getAsLong() - startedAt) / tickNanos;
+        List<T> expired = new ArrayList<>();
+        // after a full revolution every bucket has been visited once
+        long lastTick = Math.min(nowTick, currentTick + buckets.size());
+        for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+            Iterator<T> it = buckets.get((int) (tick & mask)).iterator();
+            while (it.hasNext()) {
+                T item = it.next();
+                if (deadlineTicks.get(item) <= nowTick) {
+                    it.remove();
+                    deadlineTicks.remove(item);
+                    expired.add(item);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        return expired;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.repository.PasswordResetTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Removes expired and used password reset tokens in bounded batches. The TTL index on
+ * {@code expiryDate} already drops expired tokens; this job also clears used tokens early
+ * and covers deployments where the TTL monitor lags behind.
+ *
+ * <p>Scheduled passes run on a dedicated thread, since the pauses between batches would
+ * otherwise hold up the shared scheduler thread.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordResetTokenPurgeService {
+
+    private final PasswordResetTokenRepository resetTokenRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.tokens.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.tokens.purge.max-batches:100}")
+    private int maxBatches;
+
+    @Value("${app.tokens.purge.pause-between-batches:PT0.2S}")
+    private Duration pauseBetweenBatches;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    // Hands the pass to the purge thread; skipped while the previous pass is still running
+    @Scheduled(initialDelayString = "${app.tokens.purge.interval:PT1H}",
+            fixedDelayString = "${app.tokens.purge.interval:PT1H}")
+    public void scheduledPurge() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                purge();
+            } catch (RuntimeException e) {
+                log.warn("Password reset token purge failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * Runs one purge pass and returns the number of tokens removed.
+     */
+    public long purge() {
+        LocalDateTime now = LocalDateTime.now();
+        long expired = purgeBatches(page -> resetTokenRepository.findByExpiryDateBefore(now, page));
+        long used = purgeBatches(resetTokenRepository::findByUsedTrue);
+
+        if (expired + used > 0) {
+            log.info("Purged {} expired and {} used password reset token(s)", expired, used);
+        }
+        meterRegistry.counter("tokens.purged", "reason", "expired").increment(expired);
+        meterRegistry.counter("tokens.purged", "reason", "used").increment(used);
+        return expired + used;
+    }
+
+    private long purgeBatches(Function<PageRequest, List<PasswordResetTokenRepository.IdOnly>> nextBatch) {
+        long removed = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<String> ids = nextBatch.apply(PageRequest.of(0, batchSize)).stream()
+                    .map(PasswordResetTokenRepository.IdOnly::getId)
+                    .toList();
+            if (ids.isEmpty()) {
+                break;
+            }
+            removed += resetTokenRepository.deleteByIdIn(ids);
+            if (ids.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+        return removed;
+    }
+
+    // Spreads the deletes out so the purge does not compete with request traffic
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenBatches.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
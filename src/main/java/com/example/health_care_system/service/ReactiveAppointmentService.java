@@ -0,0 +1,127 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.dto.BookingResult;
+import com.example.health_care_system.dto.SlotEvent;
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.repository.ReactiveAppointmentRepository;
+import com.example.health_care_system.repository.ReactiveAppointmentSlotRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of {@link AppointmentService} over the reactive Mongo driver.
+ * Only active with the {@code reactive} profile.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAppointmentService {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveAppointmentRepository appointmentRepository;
+    private final ReactiveAppointmentSlotRepository slotRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final AppointmentReadModelService readModel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Same claim-then-insert as {@link AppointmentService#tryBookAppointment}; the doctor comes
+     * from the claimed slot.
+     */
+    public Mono<BookingResult> bookAppointment(String patientId, String slotId) {
+        String appointmentId = new ObjectId().toHexString();
+
+        return claimSlot(slotId, appointmentId)
+                .flatMap(slot -> {
+                    availabilityIndex.markBooked(slot);
+
+                    Appointment appointment = new Appointment();
+                    appointment.setId(appointmentId);
+                    appointment.setDoctorId(slot.getDoctorId());
+                    appointment.setPatientId(patientId);
+                    appointment.setSlotId(slotId);
+                    appointment.setStatus("BOOKED");
+
+                    return appointmentRepository.insert(appointment)
+                            // give the slot back if the appointment could not be stored
+                            .onErrorResume(e -> releaseSlot(slotId, appointmentId)
+                                    .doOnNext(availabilityIndex::markFree)
+                                    .then(Mono.error(e)))
+                            .flatMap(saved -> onBoundedElastic(() -> readModel.recordBooked(saved, slot))
+                                    .doOnSuccess(done -> eventPublisher.publishEvent(SlotEvent.booked(slot)))
+                                    .thenReturn(BookingResult.booked(saved)));
+                })
+                .switchIfEmpty(Mono.defer(() -> slotRepository.findById(slotId)
+                        .map(taken -> {
+                            availabilityIndex.remove(taken.getDoctorId(), slotId);
+                            return BookingResult.slotTaken();
+                        })
+                        .defaultIfEmpty(BookingResult.slotNotFound())))
+                .doOnNext(result -> meterRegistry.counter("appointments.bookings",
+                        "outcome", result.getOutcome().name().toLowerCase()).increment());
+    }
+
+    public Mono<Void> cancelAppointment(String appointmentId) {
+        return appointmentRepository.findById(appointmentId)
+                .switchIfEmpty(Mono.error(new RuntimeException("Appointment not found")))
+                .filter(appointment -> !"CANCELLED".equals(appointment.getStatus()))
+                .flatMap(appointment -> {
+                    // cancel first: the slot may be re-booked as soon as it is released
+                    appointment.setStatus("CANCELLED");
+                    return appointmentRepository.save(appointment)
+                            .flatMap(saved -> onBoundedElastic(() -> readModel.recordStatus(saved)))
+                            .then(releaseSlot(appointment.getSlotId(), appointment.getId()))
+                            .doOnNext(availabilityIndex::markFree)
+                            .doOnNext(slot -> eventPublisher.publishEvent(SlotEvent.released(slot)));
+                })
+                .then();
+    }
+
+    public Flux<AppointmentSlot> getAvailableSlots(String doctorId, LocalDateTime from) {
+        return slotRepository.findByDoctorIdAndBookedFalseAndStartTimeGreaterThanEqualOrderByStartTimeAsc(
+                doctorId, from != null ? from : LocalDateTime.now());
+    }
+
+    public Flux<Appointment> getAppointmentsByPatient(String patientId) {
+        return appointmentRepository.findByPatientIdOrderByCreatedAtDescIdDesc(patientId);
+    }
+
+    // The read model is written through the blocking repositories, so keep it off the event loop
+    private static Mono<Void> onBoundedElastic(Runnable write) {
+        return Mono.fromRunnable(write).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    private Mono<AppointmentSlot> claimSlot(String slotId, String appointmentId) {
+        Query query = Query.query(Criteria.where("id").is(slotId).and("booked").is(false));
+        Update update = new Update()
+                .set("booked", true)
+                .set("appointmentId", appointmentId);
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), AppointmentSlot.class);
+    }
+
+    private Mono<AppointmentSlot> releaseSlot(String slotId, String appointmentId) {
+        Query query = Query.query(Criteria.where("id").is(slotId).and("appointmentId").in(appointmentId, null));
+        Update update = new Update()
+                .set("booked", false)
+                .unset("appointmentId");
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), AppointmentSlot.class);
+    }
+}
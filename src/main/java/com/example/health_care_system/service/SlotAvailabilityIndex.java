@@ -0,0 +1,254 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory, time-ordered index of upcoming free slots per doctor. Each doctor's free slots
+ * are loaded from Mongo on first use and then kept current by the booking and cancel paths,
+ * so slot listings are answered without a collection query. Slots that have started are
+ * never loaded and are dropped from an entry whenever it is read.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotAvailabilityIndex {
+
+    private final AppointmentSlotRepository slotRepository;
+
+    private final ConcurrentHashMap<String, DoctorSlots> doctors = new ConcurrentHashMap<>();
+
+    // Every load and change takes the next value, so a version never repeats across doctors or reloads
+    private final AtomicLong versions = new AtomicLong();
+
+    // Keeps versions from different nodes or restarts from ever matching
+    private final String instanceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    // Bounds staleness from writes made by other nodes
+    @Value("${app.slots.index.max-age:PT5M}")
+    private Duration maxAge;
+
+    public List<AppointmentSlot> findFreeSlots(String doctorId, LocalDateTime from, LocalDateTime to) {
+        return new ArrayList<>(window(slotsFor(doctorId).free, from, to).values());
+    }
+
+    /**
+     * The {@code limit} earliest free slots starting within [from, to) across all the given
+     * doctors. Each doctor's slots are already in time order, so this is a k-way merge that
+     * reads one head per doctor plus about {@code limit} further entries, whatever the number
+     * of slots per doctor.
+     */
+    public List<AppointmentSlot> findEarliestFreeSlots(Collection<String> doctorIds, LocalDateTime from,
+                                                       LocalDateTime to, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        preload(doctorIds);
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, doctorIds.size()));
+        for (String doctorId : doctorIds) {
+            Iterator<Map.Entry<SlotKey, AppointmentSlot>> it = window(slotsFor(doctorId).free, from, to)
+                    .entrySet().iterator();
+            if (it.hasNext()) {
+                heads.add(new Cursor(it));
+            }
+        }
+        List<AppointmentSlot> earliest = new ArrayList<>(limit);
+        while (earliest.size() < limit && !heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            earliest.add(cursor.head.getValue());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return earliest;
+    }
+
+    // Loads every doctor not yet in the index with one query instead of one per doctor
+    private void preload(Collection<String> doctorIds) {
+        List<String> missing = doctorIds.stream().filter(id -> !doctors.containsKey(id)).toList();
+        if (missing.size() < 2) {
+            return;
+        }
+        Map<String, DoctorSlots> loaded = new HashMap<>();
+        missing.forEach(id -> loaded.put(id, new DoctorSlots(versions.incrementAndGet())));
+        for (AppointmentSlot slot : slotRepository.findByDoctorIdInAndBookedFalseAndStartTimeGreaterThanEqual(missing,
+                LocalDateTime.now())) {
+            DoctorSlots entry = loaded.get(slot.getDoctorId());
+            if (entry != null && slot.getStartTime() != null) {
+                entry.free.put(SlotKey.of(slot), slot);
+            }
+        }
+        loaded.forEach(doctors::putIfAbsent);
+    }
+
+    private static NavigableMap<SlotKey, AppointmentSlot> window(NavigableMap<SlotKey, AppointmentSlot> slots,
+                                                                 LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return slots;
+        } else if (to == null) {
+            return slots.tailMap(SlotKey.lowest(from), true);
+        } else if (from == null) {
+            return slots.headMap(SlotKey.lowest(to), false);
+        } else if (!to.isAfter(from)) {
+            return Collections.emptyNavigableMap();
+        }
+        return slots.subMap(SlotKey.lowest(from), true, SlotKey.lowest(to), false);
+    }
+
+    /**
+     * Opaque tag for the free slots of a doctor from {@code from} onwards. It changes whenever
+     * a slot is booked or freed, the doctor's entry is reloaded, or the first free slot at or
+     * after {@code from} changes (slots drop out of a "from now" window as time passes).
+     */
+    public String versionTag(String doctorId, LocalDateTime from) {
+        DoctorSlots entry = slotsFor(doctorId);
+        SlotKey first = from != null ? entry.free.ceilingKey(SlotKey.lowest(from)) : null;
+        return instanceId + "-" + entry.version + (first != null ? "-" + first.id() : "");
+    }
+
+    public void markBooked(AppointmentSlot slot) {
+        DoctorSlots entry = doctors.get(slot.getDoctorId());
+        if (entry != null && slot.getStartTime() != null && entry.free.remove(SlotKey.of(slot)) != null) {
+            entry.version = versions.incrementAndGet();
+        }
+    }
+
+    public void markFree(AppointmentSlot slot) {
+        DoctorSlots entry = doctors.get(slot.getDoctorId());
+        if (entry != null && slot.getStartTime() != null && !slot.getStartTime().isBefore(LocalDateTime.now())) {
+            entry.free.put(SlotKey.of(slot), slot);
+            entry.version = versions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops a slot that turned out not to be free, e.g. after a failed claim.
+     */
+    public void remove(String doctorId, String slotId) {
+        DoctorSlots entry = doctors.get(doctorId);
+        if (entry != null && entry.free.values().removeIf(slot -> slotId.equals(slot.getId()))) {
+            entry.version = versions.incrementAndGet();
+        }
+    }
+
+    public void invalidate(String doctorId) {
+        doctors.remove(doctorId);
+    }
+
+    public void invalidateAll() {
+        doctors.clear();
+    }
+
+    // Loads outside the map so a slow query never blocks readers of other doctors in the same bin
+    private DoctorSlots slotsFor(String doctorId) {
+        LocalDateTime now = LocalDateTime.now();
+        DoctorSlots entry = doctors.get(doctorId);
+        if (entry == null) {
+            DoctorSlots loaded = load(doctorId, now);
+            DoctorSlots raced = doctors.putIfAbsent(doctorId, loaded);
+            return raced != null ? evictPast(raced, now) : loaded;
+        }
+        if (entry.isOlderThan(maxAge)) {
+            DoctorSlots reloaded = load(doctorId, now);
+            doctors.replace(doctorId, entry, reloaded);
+            return reloaded;
+        }
+        return evictPast(entry, now);
+    }
+
+    private DoctorSlots evictPast(DoctorSlots entry, LocalDateTime now) {
+        NavigableMap<SlotKey, AppointmentSlot> past = entry.free.headMap(SlotKey.lowest(now), false);
+        if (!past.isEmpty()) {
+            past.clear();
+            entry.version = versions.incrementAndGet();
+        }
+        return entry;
+    }
+
+    private DoctorSlots load(String doctorId, LocalDateTime now) {
+        DoctorSlots entry = new DoctorSlots(versions.incrementAndGet());
+        for (AppointmentSlot slot : slotRepository.findByDoctorIdAndBookedFalseAndStartTimeGreaterThanEqual(doctorId, now)) {
+            if (slot.getStartTime() != null) {
+                entry.free.put(SlotKey.of(slot), slot);
+            }
+        }
+        return entry;
+    }
+
+    private static final class DoctorSlots {
+        private final ConcurrentSkipListMap<SlotKey, AppointmentSlot> free = new ConcurrentSkipListMap<>();
+        private final long loadedAt = System.nanoTime();
+        private volatile long version;
+
+        private DoctorSlots(long version) {
+            this.version = version;
+        }
+
+        private boolean isOlderThan(Duration age) {
+            return System.nanoTime() - loadedAt > age.toNanos();
+        }
+    }
+
+    // One doctor's position in the merge, ordered by its next slot
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Iterator<Map.Entry<SlotKey, AppointmentSlot>> rest;
+        private Map.Entry<SlotKey, AppointmentSlot> head;
+
+        private Cursor(Iterator<Map.Entry<SlotKey, AppointmentSlot>> rest) {
+            this.rest = rest;
+            this.head = rest.next();
+        }
+
+        private boolean advance() {
+            if (!rest.hasNext()) {
+                return false;
+            }
+            head = rest.next();
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return head.getKey().compareTo(other.head.getKey());
+        }
+    }
+
+    private record SlotKey(LocalDateTime startTime, String id) implements Comparable<SlotKey> {
+
+        private static final Comparator<SlotKey> ORDER =
+                Comparator.comparing(SlotKey::startTime).thenComparing(SlotKey::id);
+
+        static SlotKey of(AppointmentSlot slot) {
+            return new SlotKey(slot.getStartTime(), slot.getId());
+        }
+
+        // sorts before every real slot starting at the same time
+        static SlotKey lowest(LocalDateTime startTime) {
+            return new SlotKey(startTime, "");
+        }
+
+        @Override
+        public int compareTo(SlotKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.dto.SlotEvent;
+import com.example.health_care_system.model.Doctor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans slot events out to Server-Sent Events subscribers, by doctor and by specialization.
+ * Idle subscribers are parked async requests and hold no thread. Events are serialised once
+ * and written by a small dispatch pool, so booking never waits on a slow client. Periodic
+ * heartbeats keep proxies from closing idle streams and weed out dead connections; they are
+ * written by the dispatch pool as well. A subscriber whose write has been stuck for longer
+ * than {@code app.slots.events.send-timeout} is dropped by the scheduler thread, which never
+ * writes, so the check still runs when every dispatch thread is blocked on a slow client.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlotEventHub {
+
+    private static final String DOCTOR = "doctor:";
+    private static final String SPECIALIZATION = "specialization:";
+
+    private final DoctorService doctorService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.slots.events.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.slots.events.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.slots.events.dispatch-threads:2}")
+    private int dispatchThreads;
+
+    @Value("${app.slots.events.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.slots.events.send-timeout:PT10S}")
+    private Duration sendTimeout;
+
+    @Value("${app.slots.events.heartbeat-batch-size:500}")
+    private int heartbeatBatchSize;
+
+    // topic -> subscribers
+    private final ConcurrentHashMap<String, Set<SseEmitter>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    // emitter -> System.nanoTime() when the write in flight started
+    private final ConcurrentHashMap<SseEmitter, Long> writesInFlight = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor dispatcher;
+    // completing an emitter waits for its write lock, i.e. for the stuck write itself
+    private ExecutorService closer;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "slot-events-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, executor) -> meterRegistry.counter("slots.events.dropped").increment());
+        closer = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("slot-events-close-", 1).factory());
+        meterRegistry.gauge("slots.events.subscribers", subscribers);
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.shutdownNow();
+        closer.shutdownNow();
+        topics.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    /**
+     * Returns null when the subscriber limit has been reached.
+     */
+    public SseEmitter subscribeToDoctor(String doctorId) {
+        return subscribe(DOCTOR + doctorId);
+    }
+
+    public SseEmitter subscribeToSpecialization(String specialization) {
+        return subscribe(SPECIALIZATION + specialization.toLowerCase(Locale.ROOT));
+    }
+
+    @EventListener
+    public void onSlotEvent(SlotEvent event) {
+        meterRegistry.counter("slots.events.published", "type", event.type()).increment();
+        if (!topics.isEmpty()) {
+            dispatcher.execute(() -> dispatch(event));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.slots.events.heartbeat:PT15S}",
+            fixedDelayString = "${app.slots.events.heartbeat:PT15S}")
+    public void sendHeartbeats() {
+        dropStuckSubscribers();
+        // handed to the dispatch pool in batches so the scheduler thread never writes to a client
+        List<Map.Entry<String, SseEmitter>> batch = new ArrayList<>(heartbeatBatchSize);
+        topics.forEach((topic, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                if (writesInFlight.containsKey(emitter)) {
+                    continue; // the stream is not idle
+                }
+                batch.add(Map.entry(topic, emitter));
+                if (batch.size() == heartbeatBatchSize) {
+                    submitHeartbeats(List.copyOf(batch));
+                    batch.clear();
+                }
+            }
+        });
+        if (!batch.isEmpty()) {
+            submitHeartbeats(List.copyOf(batch));
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    // Overridden in tests to observe what is written
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private SseEmitter subscribe(String topic) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = newEmitter(timeout.toMillis());
+        topics.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(emitter);
+        Runnable remove = () -> unsubscribe(topic, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    private void submitHeartbeats(List<Map.Entry<String, SseEmitter>> batch) {
+        dispatcher.execute(() -> {
+            for (Map.Entry<String, SseEmitter> subscriber : batch) {
+                heartbeat(subscriber.getKey(), subscriber.getValue());
+            }
+        });
+    }
+
+    private void heartbeat(String topic, SseEmitter emitter) {
+        if (!writesInFlight.containsKey(emitter)) {
+            send(topic, emitter, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    // Only reads timestamps and hands the close off, so it cannot block on a client
+    private void dropStuckSubscribers() {
+        long stuckSince = System.nanoTime() - sendTimeout.toNanos();
+        topics.forEach((topic, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                Long writingSince = writesInFlight.get(emitter);
+                if (writingSince != null && writingSince - stuckSince < 0) {
+                    meterRegistry.counter("slots.events.send.timeouts").increment();
+                    unsubscribe(topic, emitter);
+                    closer.execute(() -> emitter.completeWithError(
+                            new IOException("SSE write timed out after " + sendTimeout)));
+                }
+            }
+        });
+    }
+
+    private void unsubscribe(String topic, SseEmitter emitter) {
+        Set<SseEmitter> emitters = topics.get(topic);
+        if (emitters != null && emitters.remove(emitter)) {
+            subscribers.decrementAndGet();
+            writesInFlight.remove(emitter);
+            if (emitters.isEmpty()) {
+                topics.remove(topic, emitters);
+            }
+        }
+    }
+
+    private void dispatch(SlotEvent event) {
+        Doctor doctor = doctorService.getDoctorById(event.doctorId());
+        String specialization = doctor != null ? doctor.getSpecialization() : null;
+        String json;
+        try {
+            // serialised once for every subscriber
+            json = objectMapper.writeValueAsString(event.withSpecialization(specialization));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialise slot event for slot {}", event.slotId(), e);
+            return;
+        }
+        String id = Long.toString(eventIds.incrementAndGet());
+        fanOut(DOCTOR + event.doctorId(), event.type(), id, json);
+        if (specialization != null) {
+            fanOut(SPECIALIZATION + specialization.toLowerCase(Locale.ROOT), event.type(), id, json);
+        }
+    }
+
+    private void fanOut(String topic, String type, String id, String json) {
+        Set<SseEmitter> emitters = topics.get(topic);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(topic, emitter, SseEmitter.event().id(id).name(type).data(json));
+        }
+    }
+
+    private void send(String topic, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        Long previous = writesInFlight.putIfAbsent(emitter, System.nanoTime());
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // client went away; completing triggers the removal callback
+            unsubscribe(topic, emitter);
+            emitter.completeWithError(e);
+        } finally {
+            if (previous == null) {
+                writesInFlight.remove(emitter);
+            }
+        }
+    }
+}
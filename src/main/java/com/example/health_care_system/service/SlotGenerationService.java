@@ -0,0 +1,162 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.dto.SlotGenerationReport;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.model.ScheduleTemplate;
+import com.example.health_care_system.repository.ScheduleTemplateRepository;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Materialises appointment slots from {@link ScheduleTemplate}s. Slots are written with
+ * unordered bulk inserts in fixed-size batches; a unique (doctorId, startTime) index makes
+ * re-runs idempotent, since slots that already exist are rejected as duplicates and skipped.
+ *
+ * <p>A nightly job keeps a rolling horizon of {@code app.slots.generation.horizon-days}
+ * generated ahead; administrators can also generate an explicit range through
+ * {@code POST /api/appointments/slots/generate}, e.g. after adding a schedule template.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotGenerationService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ScheduleTemplateRepository templateRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+
+    @Value("${app.slots.generation.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.slots.generation.horizon-days:28}")
+    private int horizonDays;
+
+    @Value("${app.slots.generation.max-days:366}")
+    private int maxDays;
+
+    /**
+     * Extends the generated window to cover the next horizon-days days, starting tomorrow.
+     * Every node may run it; slots another node already inserted are skipped as duplicates.
+     */
+    @Scheduled(cron = "${app.slots.generation.cron:0 30 2 * * *}")
+    public SlotGenerationReport extendHorizon() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        return generateSlots(tomorrow, tomorrow.plusDays(horizonDays - 1));
+    }
+
+    /**
+     * Generates slots for every active template, for dates in [from, to] inclusive.
+     */
+    public SlotGenerationReport generateSlots(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        try (Stream<ScheduleTemplate> templates = templateRepository.streamByActiveTrue()) {
+            return generate(templates.iterator(), from, to);
+        }
+    }
+
+    public SlotGenerationReport generateSlots(List<ScheduleTemplate> templates, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return generate(templates.iterator(), from, to);
+    }
+
+    private SlotGenerationReport generate(Iterator<ScheduleTemplate> templates, LocalDate from, LocalDate to) {
+        ensureUniqueSlotIndex();
+        long started = System.nanoTime();
+        Run run = new Run();
+
+        while (templates.hasNext()) {
+            ScheduleTemplate template = templates.next();
+            run.templates++;
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                for (LocalDateTime start : template.slotStartsOn(date)) {
+                    run.buffer.add(new AppointmentSlot(start, start.plusMinutes(template.getSlotMinutes()),
+                            false, template.getDoctorId()));
+                    if (run.buffer.size() >= batchSize) {
+                        flush(run);
+                    }
+                }
+            }
+        }
+        flush(run);
+
+        // newly created slots are not in the in-memory index yet
+        availabilityIndex.invalidateAll();
+
+        long durationMillis = (System.nanoTime() - started) / 1_000_000;
+        SlotGenerationReport report = new SlotGenerationReport(run.templates, run.generated, run.inserted,
+                run.duplicates, run.batches, durationMillis);
+        log.info("Slot generation {} to {}: {} templates, {} slots generated, {} inserted, {} duplicates skipped, "
+                        + "{} batches in {} ms ({} slots/s)",
+                from, to, report.getTemplates(), report.getSlotsGenerated(), report.getSlotsInserted(),
+                report.getDuplicatesSkipped(), report.getBatches(), durationMillis,
+                String.format("%.0f", report.getSlotsPerSecond()));
+        return report;
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || to.isAfter(from.plusDays(maxDays - 1))) {
+            throw new IllegalArgumentException("Slot range must span 1 to " + maxDays + " days: " + from + " to " + to);
+        }
+    }
+
+    private void flush(Run run) {
+        if (run.buffer.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AppointmentSlot.class);
+        bulk.insert(run.buffer);
+        try {
+            run.inserted += bulk.execute().getInsertedCount();
+        } catch (BulkOperationException e) {
+            run.inserted += e.getResult().getInsertedCount();
+            run.duplicates += countDuplicates(e.getErrors());
+        }
+        run.generated += run.buffer.size();
+        run.batches++;
+        run.buffer.clear();
+    }
+
+    private static long countDuplicates(List<BulkWriteError> errors) {
+        for (BulkWriteError error : errors) {
+            if (error.getCode() != DUPLICATE_KEY) {
+                throw new IllegalStateException("Slot bulk insert failed: " + error.getMessage());
+            }
+        }
+        return errors.size();
+    }
+
+    private void ensureUniqueSlotIndex() {
+        mongoTemplate.indexOps(AppointmentSlot.class).createIndex(new Index()
+                .named("doctor_start_unique")
+                .on("doctorId", Sort.Direction.ASC)
+                .on("startTime", Sort.Direction.ASC)
+                .unique());
+    }
+
+    private final class Run {
+        private final List<AppointmentSlot> buffer = new ArrayList<>(batchSize);
+        private int templates;
+        private long generated;
+        private long inserted;
+        private long duplicates;
+        private int batches;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.dto.SlotEvent;
+import com.example.health_care_system.dto.SlotHold;
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Two-phase booking. A hold claims the slot in Mongo exactly like a booking, under a
+ * pre-generated appointment id plus the holder and an expiry, so every other booking path
+ * already treats it as taken. Confirming keeps the claim and stores the appointment; expiry is
+ * driven by an in-memory timing wheel. Holds this node is not tracking (placed before a
+ * restart or by another node) are released by the sweep, which also runs at startup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotHoldService {
+
+    private final AppointmentSlotRepository slotRepository;
+    private final AppointmentService appointmentService;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.slots.holds.duration:PT5M}")
+    private Duration holdDuration;
+
+    @Value("${app.slots.holds.tick:PT1S}")
+    private Duration tick;
+
+    @Value("${app.slots.holds.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${app.slots.holds.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    // Stops one account from taking a doctor's whole day off the market with holds
+    @Value("${app.slots.holds.max-per-patient:3}")
+    private int maxHoldsPerPatient;
+
+    private HashedTimingWheel<Hold> wheel;
+
+    @PostConstruct
+    void start() {
+        wheel = new HashedTimingWheel<>(tick, wheelSize);
+        meterRegistry.gauge("slots.holds.pending", wheel, HashedTimingWheel::size);
+    }
+
+    /**
+     * Holds a free slot for the patient. Returns null when the slot is taken, held or unknown.
+     *
+     * @throws HoldLimitExceededException if the patient already holds the maximum number of slots
+     */
+    public SlotHold placeHold(String patientId, String slotId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (slotRepository.countByHeldByAndHoldExpiresAtAfter(patientId, now) >= maxHoldsPerPatient) {
+            meterRegistry.counter("slots.holds", "outcome", "limited").increment();
+            throw new HoldLimitExceededException(maxHoldsPerPatient);
+        }
+        String holdId = new ObjectId().toHexString();
+        LocalDateTime expiresAt = now.plus(holdDuration);
+        AppointmentSlot slot = slotRepository.holdSlot(slotId, holdId, patientId, expiresAt);
+        if (slot == null) {
+            meterRegistry.counter("slots.holds", "outcome", "unavailable").increment();
+            return null;
+        }
+        wheel.schedule(new Hold(slotId, holdId), holdDuration);
+        availabilityIndex.markBooked(slot);
+        eventPublisher.publishEvent(SlotEvent.held(slot));
+        meterRegistry.counter("slots.holds", "outcome", "placed").increment();
+        return new SlotHold(holdId, slotId, slot.getDoctorId(), patientId, expiresAt);
+    }
+
+    /**
+     * Books the held slot as appointment {@code holdId}. Returns null when the hold has expired,
+     * was released or belongs to someone else.
+     */
+    public Appointment confirmHold(String patientId, String slotId, String holdId) {
+        AppointmentSlot slot = slotRepository.confirmHold(slotId, holdId, patientId, LocalDateTime.now());
+        if (slot == null) {
+            meterRegistry.counter("slots.holds", "outcome", "expired").increment();
+            return null;
+        }
+        wheel.cancel(new Hold(slotId, holdId));
+        meterRegistry.counter("slots.holds", "outcome", "confirmed").increment();
+        return appointmentService.bookHeldSlot(patientId, slot, holdId);
+    }
+
+    /**
+     * Releases the patient's hold early. Returns false when the hold is gone or is not theirs.
+     */
+    public boolean releaseHold(String patientId, String slotId, String holdId) {
+        AppointmentSlot slot = slotRepository.releaseHold(slotId, holdId, patientId);
+        if (slot == null) {
+            return false;
+        }
+        wheel.cancel(new Hold(slotId, holdId));
+        released(slot, "released");
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.slots.holds.tick:PT1S}")
+    public void expireHolds() {
+        for (Hold hold : wheel.advance()) {
+            try {
+                release(hold.slotId(), hold.holdId(), "expired");
+            } catch (RuntimeException e) {
+                // still marked as held in Mongo, so the sweep picks it up
+                log.warn("Could not release expired hold {} on slot {}", hold.holdId(), hold.slotId(), e);
+            }
+        }
+    }
+
+    /**
+     * Releases one batch of holds that expired without this node's wheel releasing them.
+     * Returns the number released.
+     */
+    @Scheduled(initialDelayString = "${app.slots.holds.sweep-interval:PT1M}",
+            fixedDelayString = "${app.slots.holds.sweep-interval:PT1M}")
+    public int sweepExpiredHolds() {
+        int released = 0;
+        List<AppointmentSlot> expired = slotRepository.findByHoldExpiresAtBefore(
+                LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+        for (AppointmentSlot slot : expired) {
+            wheel.cancel(new Hold(slot.getId(), slot.getAppointmentId()));
+            if (release(slot.getId(), slot.getAppointmentId(), "expired")) {
+                released++;
+            }
+        }
+        if (released > 0) {
+            log.info("Released {} expired slot hold(s)", released);
+        }
+        return released;
+    }
+
+    /**
+     * Reconciles with Mongo after a restart: expired holds are released and the rest are put
+     * back on the wheel.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadHolds() {
+        while (sweepExpiredHolds() == sweepBatchSize) {
+            // keep going until the backlog is cleared
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<AppointmentSlot> active = slotRepository.findByHoldExpiresAtAfter(now);
+        for (AppointmentSlot slot : active) {
+            wheel.schedule(new Hold(slot.getId(), slot.getAppointmentId()), Duration.between(now, slot.getHoldExpiresAt()));
+        }
+        if (!active.isEmpty()) {
+            log.info("Tracking {} slot hold(s) placed before startup", active.size());
+        }
+    }
+
+    private boolean release(String slotId, String holdId, String outcome) {
+        AppointmentSlot slot = slotRepository.releaseHold(slotId, holdId);
+        if (slot == null) {
+            return false;
+        }
+        released(slot, outcome);
+        return true;
+    }
+
+    private void released(AppointmentSlot slot, String outcome) {
+        availabilityIndex.markFree(slot);
+        eventPublisher.publishEvent(SlotEvent.released(slot));
+        meterRegistry.counter("slots.holds", "outcome", outcome).increment();
+    }
+
+    private record Hold(String slotId, String holdId) {
+    }
+
+    /**
+     * Thrown when a patient asks for another hold while already holding the maximum number of slots.
+     */
+    public static class HoldLimitExceededException extends RuntimeException {
+
+        public HoldLimitExceededException(int limit) {
+            super("At most " + limit + " slots can be held at a time");
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.config.TokenBucketRateLimiter;
+import com.example.health_care_system.dto.ReconciliationReport;
+import com.example.health_care_system.dto.SlotEvent;
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.repository.AppointmentRepository;
+import com.example.health_care_system.repository.AppointmentRepositoryCustom.SlotLink;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import com.example.health_care_system.repository.AppointmentSlotRepositoryCustom.SlotOwner;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Repairs drift between slots and appointments left by writes that did not both complete,
+ * e.g. a crash between cancelling an appointment and releasing its slot. Each collection is
+ * read in id order a batch at a time, with the other side joined in by the same aggregation,
+ * and repairs are conditional updates paced to a fixed write rate. A pass continues where the
+ * previous one stopped and wraps around at the end, so large collections are covered over
+ * several runs without any single run doing unbounded work.
+ *
+ * <p>Passes run on a dedicated thread: pacing the writes means a pass can take a while, and
+ * the shared scheduler thread also drives hold expiry, SSE heartbeats and the mail sweep.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotReconciliationService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentSlotRepository slotRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.slots.reconcile.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.slots.reconcile.max-batches:20}")
+    private int maxBatches;
+
+    @Value("${app.slots.reconcile.max-writes-per-second:20}")
+    private int maxWritesPerSecond;
+
+    // Longer than a booking takes between claiming the slot and storing the appointment,
+    // including a hold that is confirmed just before it expires
+    @Value("${app.slots.reconcile.grace-period:PT10M}")
+    private Duration gracePeriod;
+
+    private TokenBucketRateLimiter writeLimiter;
+    private String slotCursor;
+    private String appointmentCursor;
+    private volatile ReconciliationReport lastReport;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        writeLimiter = new TokenBucketRateLimiter(maxWritesPerSecond, Duration.ofSeconds(1), 1, 1);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slot-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        // interrupts the pacing sleep; the pass stops after its current batch
+        executor.shutdownNow();
+    }
+
+    @Scheduled(initialDelayString = "${app.slots.reconcile.interval:PT10M}",
+            fixedDelayString = "${app.slots.reconcile.interval:PT10M}")
+    public void scheduledReconcile() {
+        submit();
+    }
+
+    /**
+     * Starts a pass on the reconciliation thread and returns at once. Returns false when a
+     * pass is already running.
+     */
+    public boolean submit() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.warn("Slot reconciliation failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public ReconciliationReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Runs one pass over up to {@code max-batches} batches of slots and of appointments.
+     */
+    public synchronized ReconciliationReport reconcile() {
+        long startedAt = System.nanoTime();
+        Pass pass = new Pass();
+        Instant claimedBefore = Instant.now().minus(gracePeriod);
+
+        for (int batch = 0; batch < maxBatches && !Thread.currentThread().isInterrupted(); batch++) {
+            List<SlotOwner> slots = slotRepository.scanSlotOwners(slotCursor, batchSize);
+            pass.slotsScanned += slots.size();
+            slots.forEach(slot -> repairSlot(slot, claimedBefore, pass));
+            slotCursor = slots.size() < batchSize ? null : slots.get(slots.size() - 1).slotId();
+            if (slotCursor == null) {
+                break;
+            }
+        }
+
+        for (int batch = 0; batch < maxBatches && !Thread.currentThread().isInterrupted(); batch++) {
+            List<SlotLink> links = appointmentRepository.scanSlotLinks(appointmentCursor, batchSize);
+            pass.appointmentsScanned += links.size();
+            repairAppointments(links, LocalDateTime.now().minus(gracePeriod), pass);
+            appointmentCursor = links.size() < batchSize ? null : links.get(links.size() - 1).appointmentId();
+            if (appointmentCursor == null) {
+                break;
+            }
+        }
+
+        ReconciliationReport report = new ReconciliationReport(pass.slotsScanned, pass.appointmentsScanned,
+                pass.orphanedReleased, pass.cancelledReleased, pass.reclaimed, pass.conflicts, pass.missingSlots,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        meterRegistry.counter("slots.reconciled", "reason", "orphaned").increment(report.getOrphanedSlotsReleased());
+        meterRegistry.counter("slots.reconciled", "reason", "cancelled").increment(report.getCancelledSlotsReleased());
+        meterRegistry.counter("slots.reconciled", "reason", "reclaimed").increment(report.getSlotsReclaimed());
+        meterRegistry.counter("slots.unreconciled", "reason", "conflict").increment(report.getConflicts());
+        meterRegistry.counter("slots.unreconciled", "reason", "missing-slot").increment(report.getMissingSlots());
+        if (report.getRepaired() + report.getConflicts() + report.getMissingSlots() > 0) {
+            log.info("Reconciled slots: {} orphaned and {} cancelled slot(s) released, {} reclaimed, "
+                            + "{} conflict(s) and {} missing slot(s) left as is",
+                    report.getOrphanedSlotsReleased(), report.getCancelledSlotsReleased(), report.getSlotsReclaimed(),
+                    report.getConflicts(), report.getMissingSlots());
+        }
+        lastReport = report;
+        return report;
+    }
+
+    private void repairSlot(SlotOwner slot, Instant claimedBefore, Pass pass) {
+        // holds have their own expiry, and ownerless slots predate appointmentId being recorded
+        if (!slot.booked() || slot.held() || slot.appointmentId() == null) {
+            return;
+        }
+        boolean cancelled = "CANCELLED".equals(slot.ownerStatus());
+        boolean orphaned = slot.ownerStatus() == null && claimedBefore(slot.appointmentId(), claimedBefore);
+        if ((!cancelled && !orphaned) || !acquireWrite()) {
+            return;
+        }
+        AppointmentSlot released = slotRepository.releaseSlot(slot.slotId(), slot.appointmentId());
+        if (released == null) {
+            return;
+        }
+        availabilityIndex.markFree(released);
+        eventPublisher.publishEvent(SlotEvent.released(released));
+        if (cancelled) {
+            pass.cancelledReleased++;
+        } else {
+            pass.orphanedReleased++;
+        }
+    }
+
+    private void repairAppointments(List<SlotLink> links, LocalDateTime createdBefore, Pass pass) {
+        List<String> unclaimed = new ArrayList<>();
+        for (SlotLink link : links) {
+            if (!"BOOKED".equals(link.status())) {
+                continue;
+            }
+            if (!link.slotFound()) {
+                pass.missingSlots++;
+                log.warn("Appointment {} refers to missing slot {}", link.appointmentId(), link.slotId());
+            } else if (!link.slotBooked()) {
+                if (link.createdAt() == null || link.createdAt().isBefore(createdBefore)) {
+                    unclaimed.add(link.appointmentId());
+                }
+            } else if (link.slotAppointmentId() != null && !link.slotAppointmentId().equals(link.appointmentId())) {
+                pass.conflicts++;
+                log.warn("Appointment {} is booked, but slot {} belongs to {}",
+                        link.appointmentId(), link.slotId(), link.slotAppointmentId());
+            }
+        }
+        if (unclaimed.isEmpty()) {
+            return;
+        }
+
+        // re-read, so an appointment cancelled after the scan does not take its slot back
+        Map<String, Appointment> current = appointmentRepository.findAllById(unclaimed).stream()
+                .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+        for (String appointmentId : unclaimed) {
+            Appointment appointment = current.get(appointmentId);
+            if (appointment == null || !"BOOKED".equals(appointment.getStatus()) || !acquireWrite()) {
+                continue;
+            }
+            AppointmentSlot slot = slotRepository.claimSlot(appointment.getSlotId(), appointmentId);
+            if (slot != null) {
+                availabilityIndex.markBooked(slot);
+                eventPublisher.publishEvent(SlotEvent.booked(slot));
+                pass.reclaimed++;
+            }
+        }
+    }
+
+    // The owner id is generated when the slot is claimed, so its timestamp is the claim time
+    private static boolean claimedBefore(String appointmentId, Instant cutoff) {
+        return ObjectId.isValid(appointmentId)
+                && new ObjectId(appointmentId).getDate().toInstant().isBefore(cutoff);
+    }
+
+    // Blocks until the write budget allows another repair; false if interrupted
+    private boolean acquireWrite() {
+        try {
+            for (long wait = writeLimiter.tryAcquire("writes"); wait > 0; wait = writeLimiter.tryAcquire("writes")) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class Pass {
+        long slotsScanned;
+        long appointmentsScanned;
+        long orphanedReleased;
+        long cancelledReleased;
+        long reclaimed;
+        long conflicts;
+        long missingSlots;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.health_care_system.service;
 
+import com.example.health_care_system.cache.TtlCache;
+import com.example.health_care_system.config.BoundedPasswordEncoder;
 import com.example.health_care_system.dto.ChangePasswordDto;
 import com.example.health_care_system.dto.LoginDto;
 import com.example.health_care_system.dto.UserProfileDto;
@@ -8,10 +10,14 @@ import com.example.health_care_system.model.PasswordResetToken;
 import com.example.health_care_system.model.User;
 import com.example.health_care_system.repository.PasswordResetTokenRepository;
 import com.example.health_care_system.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -27,7 +33,27 @@ public class UserService {
     @Autowired
     private EmailService emailService;
 
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.users.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${app.cache.users.ttl:PT5M}")
+    private Duration cacheTtl;
+
+    // id -> User, plus username -> id so both lookups share one copy of the user
+    private TtlCache<String, User> usersById;
+    private TtlCache<String, String> userIdsByUsername;
+
+    @PostConstruct
+    void initCaches() {
+        usersById = new TtlCache<>(cacheMaxSize, cacheTtl);
+        userIdsByUsername = new TtlCache<>(cacheMaxSize, cacheTtl);
+    }
 
     public User registerUser(UserRegistrationDto registrationDto) throws Exception {
         // Check if username already exists
@@ -57,8 +83,58 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    /**
+     * Cached lookup for the request path. Login and password checks read the repository directly.
+     */
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username).orElse(null);
+        if (username == null) {
+            return null;
+        }
+        String id = userIdsByUsername.get(username);
+        if (id != null) {
+            User user = usersById.get(id);
+            // a rename leaves the old username pointing at the id until it expires
+            if (user != null && username.equals(user.getUsername())) {
+                return user;
+            }
+        }
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user != null) {
+            cache(user);
+        }
+        return user;
+    }
+
+    public User findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        User user = usersById.get(id);
+        if (user == null) {
+            user = userRepository.findById(id).orElse(null);
+            if (user != null) {
+                cache(user);
+            }
+        }
+        return user;
+    }
+
+    public void invalidateCachedUser(User user) {
+        usersById.invalidate(user.getId());
+        userIdsByUsername.invalidate(user.getUsername());
+    }
+
+    public TtlCache.Stats getUserCacheStats() {
+        return usersById.stats();
+    }
+
+    public TtlCache.Stats getUsernameCacheStats() {
+        return userIdsByUsername.stats();
+    }
+
+    private void cache(User user) {
+        usersById.put(user.getId(), user);
+        userIdsByUsername.put(user.getUsername(), user.getId());
     }
 
     public User findByEmail(String email) {
@@ -70,39 +146,39 @@ public class UserService {
     }
 
     public User authenticateUser(LoginDto loginDto) throws Exception {
-        User user = null;
-
-        // Try to find user by username first, then by email
-        if (loginDto.getUsernameOrEmail().contains("@")) {
-            user = userRepository.findByEmail(loginDto.getUsernameOrEmail()).orElse(null);
-        } else {
-            user = userRepository.findByUsername(loginDto.getUsernameOrEmail()).orElse(null);
-        }
-
-        // If not found by one method, try the other
-        if (user == null) {
-            if (loginDto.getUsernameOrEmail().contains("@")) {
-                user = userRepository.findByUsername(loginDto.getUsernameOrEmail()).orElse(null);
-            } else {
-                user = userRepository.findByEmail(loginDto.getUsernameOrEmail()).orElse(null);
-            }
-        }
+        // Match on username or email in a single query, username first
+        User user = userRepository.findByLogin(loginDto.getUsernameOrEmail()).orElse(null);
 
         if (user == null) {
+            recordLogin("invalid_credentials");
             throw new Exception("Invalid username/email or password");
         }
 
         if (!user.isActive()) {
+            recordLogin("disabled");
             throw new Exception("Account is disabled");
         }
 
-        if (!passwordEncoder.matches(loginDto.getPassword(), user.getPassword())) {
+        boolean matches;
+        try {
+            matches = passwordEncoder.matches(loginDto.getPassword(), user.getPassword());
+        } catch (BoundedPasswordEncoder.CapacityExceededException e) {
+            recordLogin("rejected");
+            throw e;
+        }
+        if (!matches) {
+            recordLogin("invalid_credentials");
             throw new Exception("Invalid username/email or password");
         }
 
+        recordLogin("success");
         return user;
     }
 
+    private void recordLogin(String outcome) {
+        meterRegistry.counter("auth.logins", "source", "service", "outcome", outcome).increment();
+    }
+
     public void initiatePasswordReset(String email) throws Exception {
         userRepository.findByEmail(email)
                 .orElseThrow(() -> new Exception("No account found with that email address"));
@@ -136,6 +212,7 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        invalidateCachedUser(user);
 
         // Mark token as used
         resetToken.setUsed(true);
@@ -184,6 +261,9 @@ public class UserService {
             }
         }
 
+        // Drop the cached copy under its current username before the rename
+        invalidateCachedUser(existingUser);
+
         // Update basic profile information
         existingUser.setUsername(profileDto.getUsername());
         existingUser.setEmail(profileDto.getEmail());
@@ -191,7 +271,9 @@ public class UserService {
         existingUser.setLastName(profileDto.getLastName());
         existingUser.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        invalidateCachedUser(saved);
+        return saved;
     }
 
     public User changePassword(String userId, ChangePasswordDto changePasswordDto) throws Exception {
@@ -212,6 +294,8 @@ public class UserService {
         existingUser.setPassword(passwordEncoder.encode(changePasswordDto.getNewPassword()));
         existingUser.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        invalidateCachedUser(saved);
+        return saved;
     }
 }
@@ -0,0 +1,48 @@
+package com.example.health_care_system.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TtlCacheTests {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void countsHitsAndMisses() {
+		TtlCache<String, String> cache = new TtlCache<>(10, Duration.ofMinutes(1), clock::get);
+		cache.put("a", "alpha");
+
+		assertThat(cache.get("a")).isEqualTo("alpha");
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.stats().hits()).isEqualTo(1);
+		assertThat(cache.stats().misses()).isEqualTo(1);
+	}
+
+	@Test
+	void expiresEntriesAfterTtl() {
+		TtlCache<String, String> cache = new TtlCache<>(10, Duration.ofSeconds(5), clock::get);
+		cache.put("a", "alpha");
+
+		clock.addAndGet(Duration.ofSeconds(6).toNanos());
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedBeyondMaxSize() {
+		TtlCache<String, String> cache = new TtlCache<>(2, Duration.ofMinutes(1), clock::get);
+		cache.put("a", "alpha");
+		cache.put("b", "beta");
+		cache.get("a");
+		cache.put("c", "gamma");
+
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("a")).isEqualTo("alpha");
+		assertThat(cache.stats().evictions()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.health_care_system.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.security.authentication.AuthenticationEventPublisher;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthenticationMetricsListenerTests {
+
+	private final Authentication attempt = UsernamePasswordAuthenticationToken.unauthenticated("alice", "secret");
+	private AnnotationConfigApplicationContext context;
+	private AuthenticationEventPublisher publisher;
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext();
+		context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+		context.register(AuthenticationMetricsListener.class);
+		context.refresh();
+		publisher = new SecurityConfig().authenticationEventPublisher(context);
+		meterRegistry = context.getBean(MeterRegistry.class);
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void countsASaturatedHashingPoolAsRejected() {
+		publisher.publishAuthenticationFailure(new BoundedPasswordEncoder.CapacityExceededException(), attempt);
+
+		assertThat(count("rejected")).isEqualTo(1);
+		assertThat(count("error")).isZero();
+	}
+
+	@Test
+	void countsBadCredentialsAndSuccess() {
+		publisher.publishAuthenticationFailure(new BadCredentialsException("bad"), attempt);
+		publisher.publishAuthenticationSuccess(UsernamePasswordAuthenticationToken.authenticated("alice", null, null));
+
+		assertThat(count("invalid_credentials")).isEqualTo(1);
+		assertThat(count("success")).isEqualTo(1);
+	}
+
+	private double count(String outcome) {
+		return meterRegistry.counter("auth.logins", "source", "form", "outcome", outcome).count();
+	}
+}
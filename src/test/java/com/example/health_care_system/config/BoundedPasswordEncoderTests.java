@@ -0,0 +1,86 @@
+package com.example.health_care_system.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTests {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final CountDownLatch started = new CountDownLatch(1);
+	private BoundedPasswordEncoder encoder;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		encoder.shutdown();
+	}
+
+	@Test
+	void rejectsWhenTheQueueIsFull() throws Exception {
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofSeconds(10));
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+		waitForQueueDepth(1);
+
+		assertThatThrownBy(() -> encoder.encode("third"))
+				.isInstanceOf(BoundedPasswordEncoder.CapacityExceededException.class);
+		assertThat(encoder.getRejectedCount()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:first");
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:second");
+	}
+
+	@Test
+	void failsFastWhenHashingTakesLongerThanTheTimeout() {
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, Duration.ofMillis(100));
+
+		assertThatThrownBy(() -> encoder.matches("secret", "hashed:secret"))
+				.isInstanceOf(BoundedPasswordEncoder.CapacityExceededException.class);
+		assertThat(encoder.getTimedOutCount()).isEqualTo(1);
+	}
+
+	private void waitForQueueDepth(int depth) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (encoder.getQueueDepth() < depth && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(encoder.getQueueDepth()).isEqualTo(depth);
+	}
+
+	// Holds every hash until the test releases it
+	private class BlockingEncoder implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			started.countDown();
+			await();
+			return "hashed:" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			started.countDown();
+			await();
+			return encodedPassword.equals("hashed:" + rawPassword);
+		}
+
+		private void await() {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
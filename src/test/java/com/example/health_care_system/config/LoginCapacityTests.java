@@ -0,0 +1,136 @@
+package com.example.health_care_system.config;
+
+import com.example.health_care_system.controller.HomeController;
+import com.example.health_care_system.model.User;
+import com.example.health_care_system.repository.UserRepository;
+import com.example.health_care_system.service.CustomUserDetailsService;
+import com.example.health_care_system.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sign-ins through the real security filter chain while every password hashing thread and
+ * queue slot is taken.
+ */
+@WebMvcTest(HomeController.class)
+@Import({SecurityConfig.class, CustomUserDetailsService.class, AuthenticationMetricsListener.class,
+		LoginCapacityTests.Metrics.class})
+@TestPropertySource(properties = {
+		"app.security.password.threads=1",
+		"app.security.password.queue-capacity=1",
+		"app.security.password.timeout=PT10S"})
+class LoginCapacityTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@MockitoBean
+	private UserRepository userRepository;
+
+	@MockitoBean
+	private UserService userService;
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private ThreadPoolExecutor hashingPool;
+
+	@BeforeEach
+	void saturateThePool() throws InterruptedException {
+		when(userRepository.findByLogin("alice")).thenReturn(Optional.of(
+				new User("alice", "alice@example.com", "$2a$10$abcdefghijklmnopqrstuuJ0mVxYQ3b0Wm9sDq0p4xkE5Y2wYl6yG", "A", "L")));
+		hashingPool = (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordEncoder, "executor");
+		CountDownLatch running = new CountDownLatch(1);
+		hashingPool.execute(() -> {
+			running.countDown();
+			awaitRelease();
+		});
+		assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+		hashingPool.execute(this::awaitRelease);
+	}
+
+	@AfterEach
+	void drainThePool() throws InterruptedException {
+		release.countDown();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while ((hashingPool.getActiveCount() > 0 || !hashingPool.getQueue().isEmpty()) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	void formLoginAsksTheUserToTryAgain() throws Exception {
+		double rejectedBefore = rejectedLogins();
+		mockMvc.perform(post("/login").param("username", "alice").param("password", "secret"))
+				.andExpect(status().isFound())
+				.andExpect(redirectedUrl("/login?busy"));
+		// unknown users hash a dummy password too, so they see the same answer
+		mockMvc.perform(post("/login").param("username", "nobody").param("password", "secret"))
+				.andExpect(status().isFound())
+				.andExpect(redirectedUrl("/login?busy"));
+		assertThat(rejectedLogins() - rejectedBefore).isEqualTo(2);
+	}
+
+	@Test
+	void basicAuthAnswersServiceUnavailable() throws Exception {
+		String credentials = Base64.getEncoder().encodeToString("alice:secret".getBytes(StandardCharsets.UTF_8));
+
+		mockMvc.perform(get("/appointments").header(HttpHeaders.AUTHORIZATION, "Basic " + credentials))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+	}
+
+	private double rejectedLogins() {
+		return meterRegistry.counter("auth.logins", "source", "form", "outcome", "rejected").count();
+	}
+
+	private void awaitRelease() {
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.health_care_system.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenBucketRateLimiterTests {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void allowsBurstUpToCapacityThenReportsWait() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, Duration.ofMinutes(1), 4, 100, clock::get);
+
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+
+		long wait = limiter.tryAcquire("10.0.0.1");
+		assertThat(wait).isCloseTo(Duration.ofSeconds(20).toNanos(), within(1_000L));
+		assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+	}
+
+	@Test
+	void refillsOverTime() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofSeconds(10), 4, 100, clock::get);
+		assertThat(limiter.tryAcquire("user@example.com")).isZero();
+		assertThat(limiter.tryAcquire("user@example.com")).isPositive();
+
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+		assertThat(limiter.tryAcquire("user@example.com")).isZero();
+	}
+}
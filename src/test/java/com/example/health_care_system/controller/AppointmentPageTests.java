@@ -0,0 +1,54 @@
+package com.example.health_care_system.controller;
+
+import com.example.health_care_system.repository.AppointmentRepository;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import com.example.health_care_system.service.AppointmentReadModelService;
+import com.example.health_care_system.service.AppointmentService;
+import com.example.health_care_system.service.DoctorService;
+import com.example.health_care_system.service.SlotAvailabilityIndex;
+import com.example.health_care_system.service.SlotEventHub;
+import com.example.health_care_system.service.SlotGenerationService;
+import com.example.health_care_system.service.SlotHoldService;
+import com.example.health_care_system.service.SlotReconciliationService;
+import com.example.health_care_system.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AppointmentPageTests {
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		AppointmentService appointmentService = new AppointmentService(mock(AppointmentRepository.class),
+				mock(AppointmentSlotRepository.class), mock(SlotAvailabilityIndex.class),
+				mock(AppointmentReadModelService.class), mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+		mockMvc = MockMvcBuilders.standaloneSetup(new AppointmentController.AppointmentApiController(
+				appointmentService, mock(AppointmentReadModelService.class), mock(DoctorService.class),
+				mock(UserService.class), mock(SlotEventHub.class), mock(SlotHoldService.class),
+				mock(SlotReconciliationService.class), mock(SlotGenerationService.class), new ObjectMapper())).build();
+	}
+
+	@Test
+	void rejectsTamperedCursorsWithBadRequest() throws Exception {
+		String tampered = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("2030-13-45T99:00|abc".getBytes(StandardCharsets.UTF_8));
+
+		mockMvc.perform(get("/api/appointments/patient/p1/page").param("cursor", tampered))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/appointments/patient/p1/page").param("cursor", "%%%"))
+				.andExpect(status().isBadRequest());
+	}
+}
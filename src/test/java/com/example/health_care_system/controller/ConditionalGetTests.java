@@ -0,0 +1,76 @@
+package com.example.health_care_system.controller;
+
+import com.example.health_care_system.model.Doctor;
+import com.example.health_care_system.service.AppointmentReadModelService;
+import com.example.health_care_system.service.AppointmentService;
+import com.example.health_care_system.service.DoctorService;
+import com.example.health_care_system.service.SlotEventHub;
+import com.example.health_care_system.service.SlotGenerationService;
+import com.example.health_care_system.service.SlotHoldService;
+import com.example.health_care_system.service.SlotReconciliationService;
+import com.example.health_care_system.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConditionalGetTests {
+
+	private final AppointmentService appointmentService = mock(AppointmentService.class);
+	private final DoctorService doctorService = mock(DoctorService.class);
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(new AppointmentController.AppointmentApiController(
+				appointmentService, mock(AppointmentReadModelService.class), doctorService, mock(UserService.class),
+				mock(SlotEventHub.class), mock(SlotHoldService.class), mock(SlotReconciliationService.class),
+				mock(SlotGenerationService.class), new ObjectMapper())).build();
+	}
+
+	@Test
+	void answersNotModifiedWithoutLoadingSlots() throws Exception {
+		when(appointmentService.getAvailabilityTag(eq("doctor-1"), any())).thenReturn("node-7");
+
+		MvcResult first = mockMvc.perform(get("/api/appointments/doctor/doctor-1/slots"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "no-cache"))
+				.andReturn();
+		String etag = first.getResponse().getHeader("ETag");
+		assertThat(etag).isEqualTo("\"node-7\"");
+
+		mockMvc.perform(get("/api/appointments/doctor/doctor-1/slots").header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().stringValues("ETag", etag));
+		verify(appointmentService).getAvailableSlots(eq("doctor-1"), any(), any());
+	}
+
+	@Test
+	void returnsDirectoryWhenTagChanged() throws Exception {
+		when(doctorService.getDirectoryTag()).thenReturn("node-2");
+		when(doctorService.getAllDoctors()).thenReturn(List.of(new Doctor("Dr. Smith", "Cardiology")));
+
+		mockMvc.perform(get("/api/appointments/doctors").header("If-None-Match", "\"node-1\""))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"node-2\""));
+
+		mockMvc.perform(get("/api/appointments/doctors").header("If-None-Match", "\"node-2\""))
+				.andExpect(status().isNotModified());
+		verify(doctorService).getAllDoctors();
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.health_care_system.controller;
+
+import com.example.health_care_system.dto.BookingResult;
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.service.ReactiveAppointmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ReactiveAppointmentControllerTests {
+
+	private final ReactiveAppointmentService appointmentService = mock(ReactiveAppointmentService.class);
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(new ReactiveAppointmentController(appointmentService)).build();
+	}
+
+	@Test
+	void streamsSlotsAsNdjson() throws Exception {
+		LocalDateTime start = LocalDateTime.of(2030, 1, 7, 9, 0);
+		AppointmentSlot first = new AppointmentSlot(start, start.plusMinutes(30), false, "doctor-a");
+		first.setId("s1");
+		AppointmentSlot second = new AppointmentSlot(start.plusMinutes(30), start.plusMinutes(60), false, "doctor-a");
+		second.setId("s2");
+		when(appointmentService.getAvailableSlots(eq("doctor-a"), isNull()))
+				.thenReturn(Flux.just(first, second));
+
+		MvcResult result = mockMvc.perform(get("/api/reactive/appointments/doctor/doctor-a/slots")
+						.accept(MediaType.APPLICATION_NDJSON))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(body.lines()).hasSize(2);
+		assertThat(body.lines().findFirst().orElseThrow()).contains("\"id\":\"s1\"");
+	}
+
+	@Test
+	void mapsBookingOutcomesToStatusCodes() throws Exception {
+		Appointment appointment = new Appointment();
+		appointment.setId("a1");
+		when(appointmentService.bookAppointment("p1", "free")).thenReturn(Mono.just(BookingResult.booked(appointment)));
+		when(appointmentService.bookAppointment("p1", "taken")).thenReturn(Mono.just(BookingResult.slotTaken()));
+		when(appointmentService.bookAppointment("p1", "unknown")).thenReturn(Mono.just(BookingResult.slotNotFound()));
+
+		mockMvc.perform(asyncDispatch(book("free")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value("a1"));
+		mockMvc.perform(asyncDispatch(book("taken"))).andExpect(status().isConflict());
+		mockMvc.perform(asyncDispatch(book("unknown"))).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void cancelAnswersNoContentOrNotFound() throws Exception {
+		when(appointmentService.cancelAppointment("a1")).thenReturn(Mono.empty());
+		when(appointmentService.cancelAppointment("missing"))
+				.thenReturn(Mono.error(new RuntimeException("Appointment not found")));
+
+		MvcResult cancelled = mockMvc.perform(put("/api/reactive/appointments/a1/cancel")).andReturn();
+		mockMvc.perform(asyncDispatch(cancelled)).andExpect(status().isNoContent());
+		MvcResult missing = mockMvc.perform(put("/api/reactive/appointments/missing/cancel")).andReturn();
+		mockMvc.perform(asyncDispatch(missing)).andExpect(status().isNotFound());
+	}
+
+	private MvcResult book(String slotId) throws Exception {
+		return mockMvc.perform(post("/api/reactive/appointments/book").param("patientId", "p1").param("slotId", slotId))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.health_care_system.dto;
+
+import com.example.health_care_system.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionUserTests {
+
+	@Test
+	void buildsFromUserWithoutCredentials() {
+		User user = new User("jdoe", "jdoe@example.com", "$2a$10$hash", "Jane", "Doe");
+		user.setId("64f0c0ffee");
+
+		SessionUser sessionUser = SessionUser.of(user, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+		assertThat(sessionUser.id()).isEqualTo("64f0c0ffee");
+		assertThat(sessionUser.displayName()).isEqualTo("Jane Doe");
+		assertThat(sessionUser.hasRole("ROLE_USER")).isTrue();
+		assertThat(sessionUser.hasRole("ROLE_ADMIN")).isFalse();
+	}
+
+	@Test
+	void keepsTheAuthoritiesTheUserWasGranted() {
+		User user = new User("ops", "ops@example.com", "$2a$10$hash", "Olive", "Ops");
+		user.setId("64f0c0ffef");
+
+		SessionUser sessionUser = SessionUser.of(user, AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+
+		assertThat(sessionUser.roles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+		assertThat(sessionUser.hasRole("ROLE_ADMIN")).isTrue();
+	}
+
+	@Test
+	void roundTripsThroughCompactSerialForm() throws Exception {
+		SessionUser sessionUser = new SessionUser("64f0c0ffee", "jdoe", "Jane Doe", SessionUser.DEFAULT_ROLES);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(sessionUser);
+		}
+		Object restored;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			restored = in.readObject();
+		}
+
+		assertThat(restored).isEqualTo(sessionUser);
+		assertThat(bytes.size()).isLessThan(150);
+	}
+}
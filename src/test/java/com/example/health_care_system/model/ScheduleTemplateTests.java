@@ -0,0 +1,50 @@
+package com.example.health_care_system.model;
+
+import com.example.health_care_system.model.ScheduleTemplate.TimeRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScheduleTemplateTests {
+
+	private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+
+	private final ScheduleTemplate template = new ScheduleTemplate("doctor-1", 30,
+			new ArrayList<>(List.of(new TimeRange(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(12, 0)))),
+			new ArrayList<>(List.of(new TimeRange(null, LocalTime.of(10, 15), LocalTime.of(10, 45)))));
+
+	@Test
+	void skipsBreaksAndResumesAfterThem() {
+		assertThat(template.slotStartsOn(MONDAY)).containsExactly(
+				MONDAY.atTime(9, 0),
+				MONDAY.atTime(9, 30),
+				MONDAY.atTime(10, 45),
+				MONDAY.atTime(11, 15));
+	}
+
+	@Test
+	void producesNothingOnHolidaysOrDaysOff() {
+		template.getHolidays().add(MONDAY);
+
+		assertThat(template.slotStartsOn(MONDAY)).isEmpty();
+		assertThat(template.slotStartsOn(MONDAY.plusDays(1))).isEmpty();
+	}
+
+	@Test
+	void dropsTrailingPartialSlot() {
+		template.setSlotMinutes(45);
+		template.setBreaks(new ArrayList<>());
+
+		List<LocalDateTime> starts = template.slotStartsOn(MONDAY);
+
+		assertThat(starts).hasSize(4);
+		assertThat(starts.get(3)).isEqualTo(MONDAY.atTime(11, 15));
+	}
+}
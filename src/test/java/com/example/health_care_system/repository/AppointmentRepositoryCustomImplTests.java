@@ -0,0 +1,49 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.Appointment;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AppointmentRepositoryCustomImplTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final AppointmentRepositoryCustomImpl repository = new AppointmentRepositoryCustomImpl(mongoTemplate);
+
+	@Test
+	void nextPageBreaksCreatedAtTiesOnId() {
+		LocalDateTime createdAt = LocalDateTime.of(2030, 1, 7, 9, 0);
+		ObjectId lastId = new ObjectId();
+
+		repository.findPatientPage("patient", createdAt, lastId.toHexString(), 20);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(query.capture(), eq(Appointment.class));
+		Document filter = query.getValue().getQueryObject();
+		assertThat(filter.get("patientId")).isEqualTo("patient");
+		assertThat(filter.getList("$or", Document.class)).containsExactly(
+				new Document("createdAt", new Document("$lt", createdAt)),
+				new Document("createdAt", createdAt).append("id", new Document("$lt", lastId)));
+		assertThat(query.getValue().getSortObject()).isEqualTo(new Document("createdAt", -1).append("id", -1));
+		assertThat(query.getValue().getLimit()).isEqualTo(20);
+	}
+
+	@Test
+	void firstPageHasNoLowerBound() {
+		repository.findPatientPage("patient", null, null, 20);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(query.capture(), eq(Appointment.class));
+		assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("patientId", "patient"));
+	}
+}
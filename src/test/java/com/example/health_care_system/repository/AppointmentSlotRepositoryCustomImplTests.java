@@ -0,0 +1,55 @@
+package com.example.health_care_system.repository;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AppointmentSlotRepositoryCustomImplTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final AppointmentSlotRepositoryCustomImpl repository = new AppointmentSlotRepositoryCustomImpl(mongoTemplate);
+
+	@BeforeEach
+	void setUp() {
+		when(mongoTemplate.aggregate(any(Aggregation.class), any(String.class), eq(Document.class)))
+				.thenReturn(new AggregationResults<>(List.of(), new Document()));
+		when(mongoTemplate.getCollectionName(any())).thenReturn("collection");
+	}
+
+	@Test
+	void reconciliationScanSkipsFreeSlotsFromTheStart() {
+		repository.scanSlotOwners(null, 500);
+
+		assertThat(firstStage()).isEqualTo(new Document("$match", new Document("booked", true)));
+	}
+
+	@Test
+	void reconciliationScanSkipsFreeSlotsAfterTheCursor() {
+		ObjectId after = new ObjectId();
+
+		repository.scanSlotOwners(after.toHexString(), 500);
+
+		assertThat(firstStage()).isEqualTo(new Document("$match",
+				new Document("booked", true).append("_id", new Document("$gt", after))));
+	}
+
+	private Document firstStage() {
+		ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoTemplate).aggregate(aggregation.capture(), eq("collection"), eq(Document.class));
+		return aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).get(0);
+	}
+}
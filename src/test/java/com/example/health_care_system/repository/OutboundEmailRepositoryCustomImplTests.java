@@ -0,0 +1,55 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.OutboundEmail;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboundEmailRepositoryCustomImplTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final OutboundEmailRepositoryCustomImpl repository = new OutboundEmailRepositoryCustomImpl(mongoTemplate);
+
+	@Test
+	void completionOnlyUpdatesMailStillClaimedByTheOwner() {
+		BulkOperations bulk = mock(BulkOperations.class);
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(OutboundEmail.class))).thenReturn(bulk);
+		BulkWriteResult result = mock(BulkWriteResult.class);
+		when(result.getModifiedCount()).thenReturn(0);
+		when(bulk.execute()).thenReturn(result);
+		OutboundEmail email = new OutboundEmail("patient@example.com", "Reset", "https://clinic/reset?token=secret");
+		email.setId("mail-1");
+		email.setStatus("SENT");
+		email.setSentAt(LocalDateTime.now());
+		email.setCompletedAt(email.getSentAt());
+		email.setBody(null);
+
+		// another node took the mail over, so nothing is written
+		assertThat(repository.completeClaims(List.of(email), "node-a")).isZero();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(bulk).updateOne(query.capture(), update.capture());
+		assertThat(query.getValue().getQueryObject()).isEqualTo(
+				new Document("id", "mail-1").append("status", "SENDING").append("claimedBy", "node-a"));
+		Document changes = update.getValue().getUpdateObject();
+		assertThat(changes.get("$set", Document.class)).containsEntry("status", "SENT")
+				.containsEntry("completedAt", email.getCompletedAt());
+		assertThat(changes.get("$unset", Document.class)).containsKeys("body", "claimedBy", "leaseExpiresAt");
+	}
+}
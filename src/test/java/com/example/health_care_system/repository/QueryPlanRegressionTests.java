@@ -0,0 +1,344 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.model.Doctor;
+import com.example.health_care_system.model.OutboundEmail;
+import com.example.health_care_system.model.PatientAppointment;
+import com.example.health_care_system.model.PasswordResetToken;
+import com.example.health_care_system.model.ScheduleTemplate;
+import com.example.health_care_system.model.User;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.repository.Repository;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every query method declared in the repository package against a seeded database,
+ * captures the commands the driver sends and explains them. Fails when a plan uses
+ * COLLSCAN or a find examines far more documents than it returns.
+ *
+ * <p>Needs a MongoDB server: {@code ./mvnw test -Dtest=QueryPlanRegressionTests
+ * -Dexplain.mongodb.uri=mongodb://localhost:27017}. A throwaway database is created and dropped.
+ */
+@DataMongoTest
+@EnabledIfSystemProperty(named = "explain.mongodb.uri", matches = ".+")
+class QueryPlanRegressionTests {
+
+	private static final String DATABASE = "query_plan_regression_" + System.currentTimeMillis();
+
+	private static final String REPOSITORY_PACKAGE = QueryPlanRegressionTests.class.getPackageName();
+
+	// Full passes by design, e.g. batch jobs reading every active document
+	private static final Set<String> EXPECTED_FULL_SCANS = Set.of(
+			"ScheduleTemplateRepository.streamByActiveTrue",
+			"AppointmentRepository.streamAllBy");
+
+	private static final Set<String> RATIO_CHECKED_COMMANDS = Set.of("find", "aggregate");
+
+	private static final int MAX_EXAMINED_PER_RETURNED = 10;
+
+	private static final List<Class<?>> ENTITIES = List.of(Appointment.class, AppointmentSlot.class, Doctor.class,
+			OutboundEmail.class, PasswordResetToken.class, PatientAppointment.class, ScheduleTemplate.class, User.class);
+
+	@DynamicPropertySource
+	static void mongoProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.data.mongodb.uri", () -> System.getProperty("explain.mongodb.uri"));
+		registry.add("spring.data.mongodb.database", () -> DATABASE);
+	}
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private MongoMappingContext mappingContext;
+
+	@Autowired
+	private CommandCapture commandCapture;
+
+	@BeforeEach
+	void seed() {
+		IndexResolver resolver = IndexResolver.create(mappingContext);
+		for (Class<?> entity : ENTITIES) {
+			resolver.resolveIndexFor(entity).forEach(index -> mongoTemplate.indexOps(entity).createIndex(index));
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		List<AppointmentSlot> slots = new ArrayList<>();
+		List<Appointment> appointments = new ArrayList<>();
+		for (int d = 0; d < 20; d++) {
+			for (int s = 0; s < 25; s++) {
+				slots.add(new AppointmentSlot(now.plusHours(s), now.plusHours(s).plusMinutes(30), s % 3 == 0, "doctor-" + d));
+			}
+		}
+		mongoTemplate.insertAll(slots);
+		for (int i = 0; i < slots.size(); i++) {
+			Appointment appointment = new Appointment();
+			appointment.setPatientId("patient-" + (i % 50));
+			appointment.setDoctorId(slots.get(i).getDoctorId());
+			appointment.setSlotId(slots.get(i).getId());
+			appointment.setStatus(i % 4 == 0 ? "CANCELLED" : "BOOKED");
+			appointments.add(appointment);
+		}
+		mongoTemplate.insertAll(appointments);
+
+		List<Object> others = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			others.add(new User("user" + i, "user" + i + "@example.com", "hash", "First", "Last"));
+			PasswordResetToken token = new PasswordResetToken("token-" + i, "user" + i + "@example.com");
+			token.setUsed(i % 2 == 0);
+			others.add(token);
+			OutboundEmail email = new OutboundEmail("user" + i + "@example.com", "Subject", "Body");
+			email.setStatus(i % 10 == 0 ? "PENDING" : "SENT");
+			others.add(email);
+		}
+		for (int d = 0; d < 20; d++) {
+			others.add(new ScheduleTemplate("doctor-" + d, 30, new ArrayList<>(), new ArrayList<>()));
+		}
+		mongoTemplate.insertAll(others);
+		commandCapture.drain();
+	}
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void queryMethodsUseIndexes() throws Exception {
+		List<String> violations = new ArrayList<>();
+		int explained = 0;
+
+		for (Object repository : context.getBeansOfType(Repository.class).values()) {
+			for (Class<?> repositoryInterface : repositoryInterfaces(repository.getClass())) {
+				for (Method method : repositoryInterface.getDeclaredMethods()) {
+					if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+						continue;
+					}
+					String name = repositoryInterface.getSimpleName() + "." + method.getName();
+					invoke(repository, method);
+					for (BsonDocument command : commandCapture.drain()) {
+						explained++;
+						violations.addAll(checkPlan(name, command));
+					}
+				}
+			}
+		}
+
+		assertThat(explained).as("explained commands").isPositive();
+		assertThat(violations).isEmpty();
+	}
+
+	private List<String> checkPlan(String name, BsonDocument command) {
+		String commandName = command.getFirstKey();
+		BsonDocument explain = explain(command);
+		List<String> violations = new ArrayList<>();
+
+		if (!EXPECTED_FULL_SCANS.contains(name) && stages(explain).contains("COLLSCAN")) {
+			violations.add(name + " uses COLLSCAN: " + command.toJson());
+		}
+
+		BsonDocument stats = findDocument(explain, "executionStats");
+		if (RATIO_CHECKED_COMMANDS.contains(commandName) && stats != null && !EXPECTED_FULL_SCANS.contains(name)) {
+			long examined = stats.getNumber("totalDocsExamined").longValue();
+			long returned = stats.getNumber("nReturned").longValue();
+			if (examined > Math.max(returned, 1) * MAX_EXAMINED_PER_RETURNED) {
+				violations.add(name + " examined " + examined + " documents to return " + returned);
+			}
+		}
+		return violations;
+	}
+
+	private BsonDocument explain(BsonDocument command) {
+		BsonDocument cleaned = new BsonDocument();
+		command.forEach((key, value) -> {
+			if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+				cleaned.append(key, value);
+			}
+		});
+		Document result = mongoTemplate.getDb().runCommand(new BsonDocument("explain", cleaned)
+				.append("verbosity", new BsonString("executionStats")));
+		return result.toBsonDocument();
+	}
+
+	private static Set<String> stages(BsonValue value) {
+		Set<String> stages = new LinkedHashSet<>();
+		collectStages(value, stages);
+		return stages;
+	}
+
+	private static void collectStages(BsonValue value, Set<String> stages) {
+		if (value instanceof BsonDocument document) {
+			document.forEach((key, child) -> {
+				if (key.equals("stage") && child.isString()) {
+					stages.add(child.asString().getValue());
+				} else {
+					collectStages(child, stages);
+				}
+			});
+		} else if (value instanceof BsonArray array) {
+			array.forEach(child -> collectStages(child, stages));
+		}
+	}
+
+	private static BsonDocument findDocument(BsonValue value, String key) {
+		if (value instanceof BsonDocument document) {
+			if (document.isDocument(key)) {
+				return document.getDocument(key);
+			}
+			for (BsonValue child : document.values()) {
+				BsonDocument found = findDocument(child, key);
+				if (found != null) {
+					return found;
+				}
+			}
+		} else if (value instanceof BsonArray array) {
+			for (BsonValue child : array) {
+				BsonDocument found = findDocument(child, key);
+				if (found != null) {
+					return found;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static Set<Class<?>> repositoryInterfaces(Class<?> type) {
+		Set<Class<?>> interfaces = new LinkedHashSet<>();
+		collectInterfaces(type, interfaces);
+		return interfaces;
+	}
+
+	private static void collectInterfaces(Class<?> type, Set<Class<?>> interfaces) {
+		for (Class<?> candidate : type.getInterfaces()) {
+			if (candidate.getPackageName().equals(REPOSITORY_PACKAGE)) {
+				interfaces.add(candidate);
+			}
+			collectInterfaces(candidate, interfaces);
+		}
+	}
+
+	private static void invoke(Object repository, Method method) throws Exception {
+		Object[] args = new Object[method.getParameterCount()];
+		for (int i = 0; i < args.length; i++) {
+			args[i] = sampleValue(method.getParameterTypes()[i]);
+		}
+		Object result;
+		try {
+			result = method.invoke(repository, args);
+		} catch (InvocationTargetException e) {
+			throw new AssertionError("Could not run " + method, e.getCause());
+		}
+		if (result instanceof Stream<?> stream) {
+			try (stream) {
+				stream.forEach(item -> { });
+			}
+		}
+	}
+
+	private static Object sampleValue(Class<?> type) {
+		if (type == String.class) {
+			return "sample";
+		}
+		if (type == LocalDateTime.class) {
+			return LocalDateTime.now();
+		}
+		if (type == LocalDate.class) {
+			return LocalDate.now();
+		}
+		if (type == int.class || type == Integer.class) {
+			return 10;
+		}
+		if (type == long.class || type == Long.class) {
+			return 10L;
+		}
+		if (type == boolean.class || type == Boolean.class) {
+			return false;
+		}
+		if (Pageable.class.isAssignableFrom(type)) {
+			return PageRequest.of(0, 10);
+		}
+		if (Collection.class.isAssignableFrom(type)) {
+			return List.of("sample");
+		}
+		if (Map.class.isAssignableFrom(type)) {
+			return Map.of("sample", "sample");
+		}
+		throw new IllegalArgumentException("No sample value for parameter type " + type.getName());
+	}
+
+	@TestConfiguration
+	static class CaptureConfig {
+
+		@Bean
+		CommandCapture commandCapture() {
+			return new CommandCapture();
+		}
+
+		@Bean
+		MongoClientSettingsBuilderCustomizer captureCommands(CommandCapture commandCapture) {
+			return builder -> builder.addCommandListener(commandCapture);
+		}
+	}
+
+	static class CommandCapture implements CommandListener {
+
+		private static final Set<String> QUERY_COMMANDS =
+				Set.of("find", "count", "aggregate", "distinct", "delete", "findAndModify");
+
+		private final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void commandStarted(CommandStartedEvent event) {
+			if (QUERY_COMMANDS.contains(event.getCommandName())) {
+				commands.add(event.getCommand().clone());
+			}
+		}
+
+		List<BsonDocument> drain() {
+			List<BsonDocument> drained = new ArrayList<>(commands);
+			commands.clear();
+			return drained;
+		}
+	}
+}
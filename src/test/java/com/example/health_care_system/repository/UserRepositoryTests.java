@@ -0,0 +1,38 @@
+package com.example.health_care_system.repository;
+
+import com.example.health_care_system.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserRepositoryTests {
+
+	private final UserRepository repository = mock(UserRepository.class);
+
+	@Test
+	void loginPrefersTheUsernameMatchOverAnEmailMatch() {
+		User byEmail = new User("alice", "bob@example.com", "hash", "Alice", "A");
+		User byUsername = new User("bob@example.com", "other@example.com", "hash", "Bob", "B");
+		when(repository.findByUsernameOrEmail("bob@example.com", "bob@example.com"))
+				.thenReturn(List.of(byEmail, byUsername));
+		when(repository.findByLogin(anyString())).thenCallRealMethod();
+
+		assertThat(repository.findByLogin("bob@example.com")).containsSame(byUsername);
+	}
+
+	@Test
+	void loginFallsBackToEmail() {
+		User user = new User("alice", "alice@example.com", "hash", "Alice", "A");
+		when(repository.findByUsernameOrEmail("alice@example.com", "alice@example.com")).thenReturn(List.of(user));
+		when(repository.findByUsernameOrEmail("nobody", "nobody")).thenReturn(List.of());
+		when(repository.findByLogin(anyString())).thenCallRealMethod();
+
+		assertThat(repository.findByLogin("alice@example.com")).containsSame(user);
+		assertThat(repository.findByLogin("nobody")).isEmpty();
+	}
+}
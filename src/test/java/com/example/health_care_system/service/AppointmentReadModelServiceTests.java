@@ -0,0 +1,130 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.model.Doctor;
+import com.example.health_care_system.model.PatientAppointment;
+import com.example.health_care_system.repository.AppointmentRepository;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import com.example.health_care_system.repository.PatientAppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AppointmentReadModelServiceTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2026, 10, 19, 9, 0);
+
+	private final PatientAppointmentRepository patientAppointmentRepository = mock(PatientAppointmentRepository.class);
+	private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+	private final AppointmentSlotRepository slotRepository = mock(AppointmentSlotRepository.class);
+	private final DoctorService doctorService = mock(DoctorService.class);
+	private final AppointmentReadModelService service = new AppointmentReadModelService(patientAppointmentRepository,
+			appointmentRepository, slotRepository, doctorService);
+
+	private final Doctor doctor = new Doctor("d1", "Dr. Grey", "Cardiology", null, null, null);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "rebuildBatchSize", 2);
+	}
+
+	@Test
+	void recordBookedProjectsAppointmentSlotAndDoctor() {
+		when(doctorService.getDoctorById("d1")).thenReturn(doctor);
+		Appointment appointment = appointment("a1", "d1", "s1");
+
+		service.recordBooked(appointment, slot("s1", "d1"));
+
+		ArgumentCaptor<PatientAppointment> saved = ArgumentCaptor.forClass(PatientAppointment.class);
+		verify(patientAppointmentRepository).save(saved.capture());
+		PatientAppointment view = saved.getValue();
+		assertThat(view.getId()).isEqualTo("a1");
+		assertThat(view.getPatientId()).isEqualTo("p1");
+		assertThat(view.getDoctorName()).isEqualTo("Dr. Grey");
+		assertThat(view.getSpecialization()).isEqualTo("Cardiology");
+		assertThat(view.getStartTime()).isEqualTo(START);
+		assertThat(view.getEndTime()).isEqualTo(START.plusMinutes(30));
+		assertThat(view.getStatus()).isEqualTo("BOOKED");
+		assertThat(view.getCreatedAt()).isEqualTo(appointment.getCreatedAt());
+		assertThat(view.getSyncedAt()).isNotNull();
+	}
+
+	@Test
+	void projectionFallsBackWhenDoctorOrSlotIsMissing() {
+		service.recordBooked(appointment("a1", "d9", "s9"), null);
+
+		ArgumentCaptor<PatientAppointment> saved = ArgumentCaptor.forClass(PatientAppointment.class);
+		verify(patientAppointmentRepository).save(saved.capture());
+		assertThat(saved.getValue().getDoctorName()).isEqualTo("d9");
+		assertThat(saved.getValue().getSpecialization()).isNull();
+		assertThat(saved.getValue().getStartTime()).isNull();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void rebuildWritesInBatchesAndRemovesOrphans() {
+		when(appointmentRepository.streamAllBy()).thenReturn(Stream.of(
+				appointment("a1", "d1", "s1"), appointment("a2", "d1", "s2"), appointment("a3", "d1", "s3")));
+		when(slotRepository.findAllById(any())).thenAnswer(invocation -> {
+			List<AppointmentSlot> slots = new ArrayList<>();
+			((Iterable<String>) invocation.getArgument(0)).forEach(id -> slots.add(slot(id, "d1")));
+			return slots;
+		});
+		when(doctorService.getDoctorsByIds(anyCollection())).thenReturn(Map.of("d1", doctor));
+		LocalDateTime before = LocalDateTime.now();
+
+		assertThat(service.rebuild()).isEqualTo(3);
+
+		ArgumentCaptor<List<PatientAppointment>> batches = ArgumentCaptor.forClass(List.class);
+		verify(patientAppointmentRepository, times(2)).saveAll(batches.capture());
+		assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 1);
+		assertThat(batches.getAllValues().get(1).get(0).getStartTime()).isEqualTo(START);
+
+		ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(patientAppointmentRepository).deleteBySyncedAtBefore(cutoff.capture());
+		// entries written by this rebuild are synced at or after the cutoff, so they survive
+		assertThat(cutoff.getValue()).isAfterOrEqualTo(before)
+				.isBeforeOrEqualTo(batches.getAllValues().get(0).get(0).getSyncedAt());
+	}
+
+	@Test
+	void rebuildOfAnEmptyStoreOnlyRemovesOrphans() {
+		when(appointmentRepository.streamAllBy()).thenReturn(Stream.empty());
+
+		assertThat(service.rebuild()).isZero();
+		verify(patientAppointmentRepository, times(0)).saveAll(anyList());
+		verify(patientAppointmentRepository).deleteBySyncedAtBefore(any());
+	}
+
+	private static Appointment appointment(String id, String doctorId, String slotId) {
+		Appointment appointment = new Appointment();
+		appointment.setId(id);
+		appointment.setPatientId("p1");
+		appointment.setDoctorId(doctorId);
+		appointment.setSlotId(slotId);
+		return appointment;
+	}
+
+	private static AppointmentSlot slot(String id, String doctorId) {
+		AppointmentSlot slot = new AppointmentSlot(START, START.plusMinutes(30), true, doctorId);
+		slot.setId(id);
+		return slot;
+	}
+}
@@ -0,0 +1,243 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.dto.AppointmentPage;
+import com.example.health_care_system.dto.BookingResult;
+import com.example.health_care_system.dto.BulkMode;
+import com.example.health_care_system.dto.BulkOperationResult;
+import com.example.health_care_system.dto.BulkOperationResult.Outcome;
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.repository.AppointmentRepository;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AppointmentServiceTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+	private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+	private final AppointmentSlotRepository slotRepository = mock(AppointmentSlotRepository.class);
+	private final SlotAvailabilityIndex availabilityIndex = mock(SlotAvailabilityIndex.class);
+	private AppointmentService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new AppointmentService(appointmentRepository, slotRepository, availabilityIndex,
+				mock(AppointmentReadModelService.class), mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "defaultPageSize", 2);
+		ReflectionTestUtils.setField(service, "maxPageSize", 10);
+		ReflectionTestUtils.setField(service, "maxBulkItems", 10);
+	}
+
+	@Test
+	void bookingTakesTheDoctorFromTheClaimedSlot() {
+		when(slotRepository.claimSlot(eq("s1"), anyString())).thenReturn(slot("s1", "doctor-a", true));
+		when(appointmentRepository.insert(any(Appointment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		BookingResult result = service.tryBookAppointment("patient", "s1");
+
+		assertThat(result.getOutcome()).isEqualTo(BookingResult.Outcome.BOOKED);
+		assertThat(result.getAppointment().getDoctorId()).isEqualTo("doctor-a");
+		assertThat(result.getAppointment().getSlotId()).isEqualTo("s1");
+	}
+
+	@Test
+	void reportsTakenAndUnknownSlots() {
+		when(slotRepository.findById("taken")).thenReturn(Optional.of(slot("taken", "doctor-a", true)));
+		when(slotRepository.findById("unknown")).thenReturn(Optional.empty());
+
+		assertThat(service.tryBookAppointment("patient", "taken").getOutcome())
+				.isEqualTo(BookingResult.Outcome.SLOT_TAKEN);
+		assertThat(service.tryBookAppointment("patient", "unknown").getOutcome())
+				.isEqualTo(BookingResult.Outcome.SLOT_NOT_FOUND);
+		// the stale index entry is dropped under the slot's own doctor
+		verify(availabilityIndex).remove("doctor-a", "taken");
+	}
+
+	@Test
+	void releasesTheSlotWhenTheAppointmentCannotBeStored() {
+		AppointmentSlot claimed = slot("s1", "doctor-a", true);
+		when(slotRepository.claimSlot(eq("s1"), anyString())).thenReturn(claimed);
+		when(appointmentRepository.insert(any(Appointment.class))).thenThrow(new IllegalStateException("write failed"));
+		AppointmentSlot released = slot("s1", "doctor-a", false);
+		when(slotRepository.releaseSlot(eq("s1"), anyString())).thenReturn(released);
+
+		assertThatThrownBy(() -> service.tryBookAppointment("patient", "s1")).hasMessage("write failed");
+
+		ArgumentCaptor<String> claimedBy = ArgumentCaptor.forClass(String.class);
+		verify(slotRepository).claimSlot(eq("s1"), claimedBy.capture());
+		verify(slotRepository).releaseSlot("s1", claimedBy.getValue());
+		verify(availabilityIndex).markFree(released);
+	}
+
+	@Test
+	void allOrNothingBookingReleasesAPartialClaim() {
+		Map<String, String> claims = stubClaims(Set.of("s1", "s2"), "s3");
+
+		BulkOperationResult result = service.bookAppointments("patient", List.of("s1", "s2", "s3", "s4"),
+				BulkMode.ALL_OR_NOTHING);
+
+		assertThat(result.isApplied()).isFalse();
+		assertThat(result.getItems()).extracting(BulkOperationResult.Item::outcome).containsExactly(
+				Outcome.NOT_APPLIED, Outcome.NOT_APPLIED, Outcome.SLOT_TAKEN, Outcome.SLOT_NOT_FOUND);
+		// only the two slots this request claimed are given back, under their own claim ids
+		verify(slotRepository).releaseSlots(Map.of("s1", claims.get("s1"), "s2", claims.get("s2")));
+		verify(appointmentRepository, never()).insert(anyList());
+		verify(availabilityIndex).remove("doctor-a", "s3");
+	}
+
+	@Test
+	void failedBulkInsertReleasesEveryClaimedSlot() {
+		Map<String, String> claims = stubClaims(Set.of("s1", "s2"));
+		when(appointmentRepository.insert(anyList())).thenThrow(new IllegalStateException("write failed"));
+
+		assertThatThrownBy(() -> service.bookAppointments("patient", List.of("s1", "s2"), BulkMode.BEST_EFFORT))
+				.hasMessage("write failed");
+
+		// a partial insertMany is undone before the slots are released
+		verify(appointmentRepository).deleteAllById(List.of(claims.get("s1"), claims.get("s2")));
+		verify(slotRepository).releaseSlots(claims);
+		verify(availabilityIndex, never()).markBooked(any());
+	}
+
+	@Test
+	void bestEffortCancelCancelsWhatItCanAndReportsTheRest() {
+		Appointment booked = appointment("a1", START);
+		booked.setSlotId("s1");
+		booked.setStatus("BOOKED");
+		Appointment cancelled = appointment("a2", START);
+		cancelled.setSlotId("s2");
+		cancelled.setStatus("CANCELLED");
+		when(appointmentRepository.findAllById(List.of("a1", "a2", "a3"))).thenReturn(List.of(booked, cancelled));
+		when(slotRepository.findAllById(Set.of("s1"))).thenReturn(List.of(slot("s1", "doctor-a", false)));
+
+		BulkOperationResult result = service.cancelAppointments(List.of("a1", "a2", "a3"), BulkMode.BEST_EFFORT);
+
+		assertThat(result.isApplied()).isTrue();
+		assertThat(result.getItems()).extracting(BulkOperationResult.Item::outcome).containsExactly(
+				Outcome.CANCELLED, Outcome.ALREADY_CANCELLED, Outcome.NOT_FOUND);
+		verify(appointmentRepository).cancelAll(List.of("a1"));
+		verify(slotRepository).releaseSlots(Map.of("s1", "a1"));
+	}
+
+	@Test
+	void allOrNothingCancelLeavesEverythingUnchanged() {
+		Appointment booked = appointment("a1", START);
+		booked.setSlotId("s1");
+		when(appointmentRepository.findAllById(List.of("a1", "a3"))).thenReturn(List.of(booked));
+
+		BulkOperationResult result = service.cancelAppointments(List.of("a1", "a3"), BulkMode.ALL_OR_NOTHING);
+
+		assertThat(result.isApplied()).isFalse();
+		assertThat(result.getItems()).extracting(BulkOperationResult.Item::outcome)
+				.containsExactly(Outcome.NOT_APPLIED, Outcome.NOT_FOUND);
+		verify(appointmentRepository, never()).cancelAll(any());
+		verify(slotRepository, never()).releaseSlots(anyMap());
+	}
+
+	@Test
+	void cursorContinuesAfterTheLastRowWhenRowsShareCreatedAt() {
+		LocalDateTime createdAt = START.minusDays(1);
+		when(appointmentRepository.findPatientPage(eq("patient"), isNull(), isNull(), eq(3))).thenReturn(List.of(
+				appointment("c", createdAt), appointment("b", createdAt), appointment("a", createdAt)));
+
+		AppointmentPage first = service.getAppointmentsByPatient("patient", null, null);
+
+		assertThat(first.getItems()).extracting(Appointment::getId).containsExactly("c", "b");
+		assertThat(first.getNextCursor()).isNotNull();
+
+		// same createdAt as the next row, so only the id tells the pages apart
+		when(appointmentRepository.findPatientPage("patient", createdAt, "b", 3))
+				.thenReturn(List.of(appointment("a", createdAt)));
+		AppointmentPage second = service.getAppointmentsByPatient("patient", first.getNextCursor(), null);
+
+		assertThat(second.getItems()).extracting(Appointment::getId).containsExactly("a");
+		assertThat(second.getNextCursor()).isNull();
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		for (String cursor : List.of("not base64!", encode("yesterday|b"), encode(START.toString()),
+				encode(START + "|"))) {
+			assertThatThrownBy(() -> service.getAppointmentsByPatient("patient", cursor, null))
+					.as(cursor)
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+
+	/**
+	 * Stubs the bulk claim: the claimable slots end up holding this request's claim ids, the
+	 * taken ones exist but hold someone else's, and any other id does not exist. Returns the
+	 * claim ids of the claimable slots once the service has called claimSlots.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, String> stubClaims(Set<String> claimable, String... taken) {
+		Map<String, String> claims = new HashMap<>();
+		when(slotRepository.claimSlots(anyMap())).thenAnswer(invocation -> {
+			((Map<String, String>) invocation.getArgument(0)).forEach((slotId, appointmentId) -> {
+				if (claimable.contains(slotId)) {
+					claims.put(slotId, appointmentId);
+				}
+			});
+			return claims.size();
+		});
+		when(slotRepository.findAllById(any())).thenAnswer(invocation -> {
+			List<AppointmentSlot> slots = new ArrayList<>();
+			for (String slotId : (Collection<String>) invocation.getArgument(0)) {
+				if (claimable.contains(slotId) || List.of(taken).contains(slotId)) {
+					AppointmentSlot slot = slot(slotId, "doctor-a", true);
+					slot.setAppointmentId(claims.getOrDefault(slotId, "someone-else"));
+					slots.add(slot);
+				}
+			}
+			return slots;
+		});
+		return claims;
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Appointment appointment(String id, LocalDateTime createdAt) {
+		Appointment appointment = new Appointment();
+		appointment.setId(id);
+		appointment.setCreatedAt(createdAt);
+		return appointment;
+	}
+
+	private static AppointmentSlot slot(String id, String doctorId, boolean booked) {
+		AppointmentSlot slot = new AppointmentSlot(START, START.plusMinutes(30), booked, doctorId);
+		slot.setId(id);
+		return slot;
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.User;
+import com.example.health_care_system.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomUserDetailsServiceTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final CustomUserDetailsService service = new CustomUserDetailsService();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		ReflectionTestUtils.setField(service, "adminUsers", Set.of("ops"));
+		when(userRepository.findByLogin("ops")).thenReturn(Optional.of(new User("ops", "ops@example.com", "hash", "O", "P")));
+		when(userRepository.findByLogin("alice")).thenReturn(Optional.of(new User("alice", "a@example.com", "hash", "A", "L")));
+	}
+
+	@Test
+	void onlyConfiguredUsersAreAdmins() {
+		assertThat(service.loadUserByUsername("ops").getAuthorities()).extracting(GrantedAuthority::getAuthority)
+				.containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+		assertThat(service.loadUserByUsername("alice").getAuthorities()).extracting(GrantedAuthority::getAuthority)
+				.containsExactly("ROLE_USER");
+	}
+
+	@Test
+	void sessionsBuiltOutsideTheFilterChainGetTheSameAuthorities() {
+		User ops = userRepository.findByLogin("ops").orElseThrow();
+
+		assertThat(service.authoritiesOf(ops)).extracting(GrantedAuthority::getAuthority)
+				.containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+	}
+}
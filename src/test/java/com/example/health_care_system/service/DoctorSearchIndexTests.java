@@ -0,0 +1,51 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.Doctor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DoctorSearchIndexTests {
+
+	@Test
+	void matchesEveryQueryWordAsAPrefix() {
+		DoctorSearchIndex index = DoctorSearchIndex.of(List.of(
+				doctor("1", "Dr. Anna Müller", "Cardiology"),
+				doctor("2", "Dr. Andrew Smith", "Cardiology"),
+				doctor("3", "Dr. Anna Smith", "Dermatology")));
+
+		assertThat(names(index.search("card", 0, 10))).containsExactly("Dr. Andrew Smith", "Dr. Anna Müller");
+		assertThat(names(index.search("an smi", 0, 10))).containsExactly("Dr. Andrew Smith", "Dr. Anna Smith");
+		assertThat(names(index.search("MULLER", 0, 10))).containsExactly("Dr. Anna Müller");
+		assertThat(index.search("neuro", 0, 10).total()).isZero();
+
+		DoctorSearchIndex.Result page = index.search("", 1, 1);
+		assertThat(page.total()).isEqualTo(3);
+		assertThat(names(page)).containsExactly("Dr. Anna Müller");
+	}
+
+	@Test
+	void updatesOnlyTheChangedDoctor() {
+		DoctorSearchIndex index = DoctorSearchIndex.of(List.of(doctor("1", "Dr. Anna Smith", "Cardiology")));
+
+		index.put(doctor("1", "Dr. Anna Smith", "Neurology"));
+		assertThat(index.search("card", 0, 10).total()).isZero();
+		assertThat(index.search("neuro", 0, 10).total()).isEqualTo(1);
+
+		index.remove("1");
+		assertThat(index.search("anna", 0, 10).total()).isZero();
+		assertThat(index.size()).isZero();
+	}
+
+	private static Doctor doctor(String id, String name, String specialization) {
+		Doctor doctor = new Doctor(name, specialization);
+		doctor.setId(id);
+		return doctor;
+	}
+
+	private static List<String> names(DoctorSearchIndex.Result result) {
+		return result.doctors().stream().map(Doctor::getName).toList();
+	}
+}
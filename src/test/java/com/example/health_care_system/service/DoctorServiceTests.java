@@ -0,0 +1,66 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.Doctor;
+import com.example.health_care_system.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoctorServiceTests {
+
+	private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+	private final DoctorService doctorService = new DoctorService(doctorRepository);
+
+	@BeforeEach
+	void setUp() {
+		// a directory larger than the cache bound is never kept in memory
+		ReflectionTestUtils.setField(doctorService, "maxSize", 1);
+		ReflectionTestUtils.setField(doctorService, "ttl", Duration.ofMinutes(5));
+		doctorService.initCaches();
+		when(doctorRepository.findAll()).thenReturn(List.of(new Doctor("Dr. Grey", "Cardiology"),
+				new Doctor("Dr. House", "Diagnostics")));
+		when(doctorRepository.save(any(Doctor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void directoryTagNeverLoadsTheDirectory() {
+		String tag = doctorService.getDirectoryTag();
+		assertThat(doctorService.getAllDoctors()).hasSize(2);
+
+		assertThat(doctorService.getDirectoryTag()).isEqualTo(tag);
+		assertThat(doctorService.getDirectoryTag()).isEqualTo(tag);
+		verify(doctorRepository, times(1)).findAll();
+	}
+
+	@Test
+	void directoryTagChangesOnWrites() {
+		String tag = doctorService.getDirectoryTag();
+
+		doctorService.saveDoctor(new Doctor("Dr. Wilson", "Oncology"));
+
+		assertThat(doctorService.getDirectoryTag()).isNotEqualTo(tag);
+		verify(doctorRepository, never()).findAll();
+	}
+
+	@Test
+	void directoryTagRollsOverOncePerTtl() {
+		ReflectionTestUtils.setField(doctorService, "ttl", Duration.ofMillis(50));
+		String tag = doctorService.getDirectoryTag();
+
+		// picks up writes made on other nodes without a reload per request
+		await().atMost(Duration.ofSeconds(2)).until(() -> !doctorService.getDirectoryTag().equals(tag));
+		verify(doctorRepository, never()).findAll();
+	}
+}
@@ -0,0 +1,174 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.OutboundEmail;
+import com.example.health_care_system.repository.OutboundEmailRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailDispatcherTests {
+
+	@RegisterExtension
+	static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+	private final OutboundEmailRepository repository = mock(OutboundEmailRepository.class);
+	private EmailDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		when(repository.save(any(OutboundEmail.class))).thenAnswer(invocation -> {
+			OutboundEmail email = invocation.getArgument(0);
+			email.setId("mail-" + email.getTo());
+			return email;
+		});
+		when(repository.completeClaims(anyList(), anyString())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+		dispatcher = dispatcher(greenMail.getSmtp().getPort());
+	}
+
+	@AfterEach
+	void tearDown() {
+		dispatcher.stop();
+	}
+
+	@Test
+	void sendsEnqueuedMailAndMarksItSent() throws Exception {
+		OutboundEmail email = dispatcher.enqueue("patient@example.com", "Reminder", "See you tomorrow");
+
+		assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+		MimeMessage received = greenMail.getReceivedMessages()[0];
+		assertThat(received.getSubject()).isEqualTo("Reminder");
+		verify(repository, timeout(5000)).completeClaims(eq(List.of(email)), anyString());
+		assertThat(email.getStatus()).isEqualTo("SENT");
+		assertThat(email.getSentAt()).isNotNull();
+		assertThat(email.getCompletedAt()).isEqualTo(email.getSentAt());
+		assertThat(email.getBody()).isNull();
+		assertThat(email.getClaimedBy()).isNull();
+	}
+
+	@Test
+	void backsOffExponentiallyAndGivesUpAfterMaxAttempts() {
+		EmailDispatcher offline = dispatcher(closedPort());
+		try {
+			OutboundEmail email = claimed(offline, "patient@example.com");
+
+			offline.sendBatch(List.of(email));
+			assertThat(email.getStatus()).isEqualTo("PENDING");
+			assertThat(email.getAttempts()).isEqualTo(1);
+			assertThat(email.getBody()).isNotNull();
+			assertThat(email.getCompletedAt()).isNull();
+			assertThat(email.getNextAttemptAt())
+					.isCloseTo(LocalDateTime.now().plusSeconds(30), within(5, ChronoUnit.SECONDS));
+			assertThat(email.getLastError()).isNotBlank();
+
+			reclaim(offline, email);
+			offline.sendBatch(List.of(email));
+			assertThat(email.getAttempts()).isEqualTo(2);
+			// doubled for the second failure
+			assertThat(email.getNextAttemptAt())
+					.isCloseTo(LocalDateTime.now().plusSeconds(60), within(5, ChronoUnit.SECONDS));
+
+			reclaim(offline, email);
+			offline.sendBatch(List.of(email));
+			assertThat(email.getStatus()).isEqualTo("FAILED");
+			assertThat(email.getAttempts()).isEqualTo(3);
+			assertThat(email.getCompletedAt()).isNotNull();
+			assertThat(email.getBody()).isNull();
+		} finally {
+			offline.stop();
+		}
+	}
+
+	@Test
+	void doesNotSendUnderALapsedClaim() {
+		OutboundEmail email = claimed(dispatcher, "patient@example.com");
+		email.setLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+
+		dispatcher.sendBatch(List.of(email));
+
+		assertThat(greenMail.getReceivedMessages()).isEmpty();
+		assertThat(email.getStatus()).isEqualTo("SENDING");
+		verify(repository, never()).completeClaims(anyList(), anyString());
+	}
+
+	@Test
+	void sweepQueuesOnlyMailItClaimed() throws Exception {
+		OutboundEmail due = claimed(dispatcher, "late@example.com");
+		when(repository.claimNextDue(anyString(), any(), any())).thenReturn(due, (OutboundEmail) null);
+
+		dispatcher.sweepPending();
+
+		assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+		verify(repository, timeout(5000)).completeClaims(eq(List.of(due)), anyString());
+		assertThat(due.getStatus()).isEqualTo("SENT");
+	}
+
+	private EmailDispatcher dispatcher(int smtpPort) {
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("127.0.0.1");
+		mailSender.setPort(smtpPort);
+		Properties properties = new Properties();
+		properties.put("mail.smtp.connectiontimeout", "2000");
+		properties.put("mail.smtp.timeout", "2000");
+		mailSender.setJavaMailProperties(properties);
+
+		EmailDispatcher created = new EmailDispatcher(repository, mailSender, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(created, "fromEmail", "clinic@example.com");
+		ReflectionTestUtils.setField(created, "queueCapacity", 10);
+		ReflectionTestUtils.setField(created, "workers", 1);
+		ReflectionTestUtils.setField(created, "batchSize", 5);
+		ReflectionTestUtils.setField(created, "maxAttempts", 3);
+		ReflectionTestUtils.setField(created, "initialBackoff", Duration.ofSeconds(30));
+		ReflectionTestUtils.setField(created, "maxBackoff", Duration.ofMinutes(30));
+		ReflectionTestUtils.setField(created, "lease", Duration.ofMinutes(5));
+		created.start();
+		return created;
+	}
+
+	private static OutboundEmail claimed(EmailDispatcher owner, String to) {
+		OutboundEmail email = new OutboundEmail(to, "Reminder", "See you tomorrow");
+		email.setId("mail-" + to);
+		reclaim(owner, email);
+		return email;
+	}
+
+	private static void reclaim(EmailDispatcher owner, OutboundEmail email) {
+		email.setStatus("SENDING");
+		email.setClaimedBy((String) ReflectionTestUtils.getField(owner, "nodeId"));
+		email.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(5));
+	}
+
+	private static int closedPort() {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
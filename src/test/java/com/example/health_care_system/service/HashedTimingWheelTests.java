@@ -0,0 +1,53 @@
+package com.example.health_care_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTests {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void expiresItemsOnceTheirDeadlinePasses() {
+		HashedTimingWheel<String> wheel = new HashedTimingWheel<>(Duration.ofSeconds(1), 8, clock::get);
+		wheel.schedule("a", Duration.ofSeconds(2));
+		wheel.schedule("b", Duration.ofSeconds(20));
+
+		advanceBy(Duration.ofSeconds(1));
+		assertThat(wheel.advance()).isEmpty();
+
+		advanceBy(Duration.ofSeconds(1));
+		assertThat(wheel.advance()).containsExactly("a");
+
+		// "b" shares a bucket with earlier ticks but is more than two revolutions away
+		advanceBy(Duration.ofSeconds(17));
+		assertThat(wheel.advance()).isEmpty();
+		advanceBy(Duration.ofSeconds(1));
+		assertThat(wheel.advance()).containsExactly("b");
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void cancelledAndRescheduledItemsDoNotFireEarly() {
+		HashedTimingWheel<String> wheel = new HashedTimingWheel<>(Duration.ofSeconds(1), 8, clock::get);
+		wheel.schedule("a", Duration.ofSeconds(1));
+		wheel.schedule("b", Duration.ofSeconds(1));
+		assertThat(wheel.cancel("a")).isTrue();
+		wheel.schedule("b", Duration.ofSeconds(5));
+
+		advanceBy(Duration.ofSeconds(2));
+		assertThat(wheel.advance()).isEmpty();
+
+		// a long pause still catches up on everything that is due
+		advanceBy(Duration.ofMinutes(1));
+		assertThat(wheel.advance()).containsExactly("b");
+	}
+
+	private void advanceBy(Duration duration) {
+		clock.addAndGet(duration.toNanos());
+	}
+}
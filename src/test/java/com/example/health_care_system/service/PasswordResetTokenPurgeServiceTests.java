@@ -0,0 +1,93 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.repository.PasswordResetTokenRepository;
+import com.example.health_care_system.repository.PasswordResetTokenRepository.IdOnly;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordResetTokenPurgeServiceTests {
+
+	private final PasswordResetTokenRepository repository = mock(PasswordResetTokenRepository.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PasswordResetTokenPurgeService service = new PasswordResetTokenPurgeService(repository, meterRegistry);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "batchSize", 3);
+		ReflectionTestUtils.setField(service, "maxBatches", 4);
+		ReflectionTestUtils.setField(service, "pauseBetweenBatches", Duration.ZERO);
+		when(repository.findByUsedTrue(any())).thenReturn(List.of());
+		when(repository.deleteByIdIn(anyCollection())).thenAnswer(invocation -> (long) invocation.<Collection<?>>getArgument(0).size());
+		service.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.stop();
+	}
+
+	@Test
+	void deletesFullBatchesUntilAShortOne() {
+		when(repository.findByExpiryDateBefore(any(), any(PageRequest.class)))
+				.thenReturn(ids(3), ids(3), ids(1));
+
+		assertThat(service.purge()).isEqualTo(7);
+		verify(repository, times(3)).findByExpiryDateBefore(any(), any(PageRequest.class));
+		verify(repository, times(3)).deleteByIdIn(anyCollection());
+		assertThat(meterRegistry.counter("tokens.purged", "reason", "expired").count()).isEqualTo(7);
+	}
+
+	@Test
+	void stopsAfterMaxBatches() {
+		when(repository.findByExpiryDateBefore(any(), any(PageRequest.class))).thenReturn(ids(3));
+
+		assertThat(service.purge()).isEqualTo(12);
+		verify(repository, times(4)).findByExpiryDateBefore(any(), any(PageRequest.class));
+	}
+
+	@Test
+	void stopsWhenNothingIsLeft() {
+		when(repository.findByExpiryDateBefore(any(), any(PageRequest.class))).thenReturn(ids(3), List.of());
+
+		assertThat(service.purge()).isEqualTo(3);
+		verify(repository, times(1)).deleteByIdIn(anyCollection());
+	}
+
+	@Test
+	void scheduledPurgeRunsOffTheCallingThread() {
+		Thread caller = Thread.currentThread();
+		Thread[] purgeThread = new Thread[1];
+		when(repository.findByExpiryDateBefore(any(), any(PageRequest.class))).thenAnswer(invocation -> {
+			purgeThread[0] = Thread.currentThread();
+			return List.of();
+		});
+
+		service.scheduledPurge();
+
+		verify(repository, timeout(1000)).findByUsedTrue(any());
+		assertThat(purgeThread[0]).isNotNull().isNotSameAs(caller);
+		assertThat(purgeThread[0].getName()).isEqualTo("token-purge");
+	}
+
+	private static List<IdOnly> ids(int count) {
+		return IntStream.range(0, count).<IdOnly>mapToObj(i -> () -> "token-" + i).toList();
+	}
+}
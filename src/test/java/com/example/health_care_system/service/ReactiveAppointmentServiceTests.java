@@ -0,0 +1,139 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.dto.BookingResult;
+import com.example.health_care_system.dto.SlotEvent;
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.repository.ReactiveAppointmentRepository;
+import com.example.health_care_system.repository.ReactiveAppointmentSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveAppointmentServiceTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+	private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+	private final ReactiveAppointmentRepository appointmentRepository = mock(ReactiveAppointmentRepository.class);
+	private final ReactiveAppointmentSlotRepository slotRepository = mock(ReactiveAppointmentSlotRepository.class);
+	private final SlotAvailabilityIndex availabilityIndex = mock(SlotAvailabilityIndex.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private ReactiveAppointmentService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new ReactiveAppointmentService(mongoTemplate, appointmentRepository, slotRepository,
+				availabilityIndex, mock(AppointmentReadModelService.class), eventPublisher, new SimpleMeterRegistry());
+	}
+
+	@Test
+	void booksAClaimedSlotForItsOwnDoctor() {
+		whenClaim().thenReturn(Mono.just(slot("s1", true)));
+		when(appointmentRepository.insert(any(Appointment.class)))
+				.thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		StepVerifier.create(service.bookAppointment("patient", "s1"))
+				.assertNext(result -> {
+					assertThat(result.getOutcome()).isEqualTo(BookingResult.Outcome.BOOKED);
+					assertThat(result.getAppointment().getDoctorId()).isEqualTo("doctor-a");
+				})
+				.verifyComplete();
+		verify(eventPublisher).publishEvent(any(SlotEvent.class));
+	}
+
+	@Test
+	void reportsTakenAndUnknownSlots() {
+		whenClaim().thenReturn(Mono.empty());
+		when(slotRepository.findById("taken")).thenReturn(Mono.just(slot("taken", true)));
+		when(slotRepository.findById("unknown")).thenReturn(Mono.empty());
+
+		StepVerifier.create(service.bookAppointment("patient", "taken"))
+				.assertNext(result -> assertThat(result.getOutcome()).isEqualTo(BookingResult.Outcome.SLOT_TAKEN))
+				.verifyComplete();
+		StepVerifier.create(service.bookAppointment("patient", "unknown"))
+				.assertNext(result -> assertThat(result.getOutcome()).isEqualTo(BookingResult.Outcome.SLOT_NOT_FOUND))
+				.verifyComplete();
+		verify(availabilityIndex).remove("doctor-a", "taken");
+	}
+
+	@Test
+	void releasesTheSlotWhenTheInsertFails() {
+		AppointmentSlot released = slot("s1", false);
+		whenClaim().thenReturn(Mono.just(slot("s1", true)));
+		whenRelease().thenReturn(Mono.just(released));
+		when(appointmentRepository.insert(any(Appointment.class)))
+				.thenReturn(Mono.error(new IllegalStateException("write failed")));
+
+		StepVerifier.create(service.bookAppointment("patient", "s1"))
+				.expectErrorMessage("write failed")
+				.verify();
+		verify(availabilityIndex).markFree(released);
+	}
+
+	@Test
+	void cancelsAndReleasesTheSlot() {
+		Appointment appointment = new Appointment();
+		appointment.setId("a1");
+		appointment.setSlotId("s1");
+		AppointmentSlot released = slot("s1", false);
+		when(appointmentRepository.findById("a1")).thenReturn(Mono.just(appointment));
+		when(appointmentRepository.save(appointment)).thenReturn(Mono.just(appointment));
+		whenRelease().thenReturn(Mono.just(released));
+
+		StepVerifier.create(service.cancelAppointment("a1")).verifyComplete();
+
+		assertThat(appointment.getStatus()).isEqualTo("CANCELLED");
+		verify(availabilityIndex).markFree(released);
+		verify(eventPublisher).publishEvent(any(SlotEvent.class));
+	}
+
+	@Test
+	void cancellingAnUnknownAppointmentFails() {
+		when(appointmentRepository.findById("missing")).thenReturn(Mono.empty());
+
+		StepVerifier.create(service.cancelAppointment("missing"))
+				.expectErrorMessage("Appointment not found")
+				.verify();
+	}
+
+	private OngoingStubbing<Mono<AppointmentSlot>> whenClaim() {
+		return whenSlotUpdate(true);
+	}
+
+	private OngoingStubbing<Mono<AppointmentSlot>> whenRelease() {
+		return whenSlotUpdate(false);
+	}
+
+	// claims and releases only differ in the booked flag they set
+	private OngoingStubbing<Mono<AppointmentSlot>> whenSlotUpdate(boolean booked) {
+		return when(mongoTemplate.findAndModify(any(Query.class),
+				argThat(update -> update != null
+						&& update.getUpdateObject().get("$set", Document.class).get("booked").equals(booked)),
+				any(FindAndModifyOptions.class), eq(AppointmentSlot.class)));
+	}
+
+	private static AppointmentSlot slot(String id, boolean booked) {
+		AppointmentSlot slot = new AppointmentSlot(START, START.plusMinutes(30), booked, "doctor-a");
+		slot.setId(id);
+		return slot;
+	}
+}
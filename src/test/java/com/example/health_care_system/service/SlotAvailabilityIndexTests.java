@@ -0,0 +1,82 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotAvailabilityIndexTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+	@Test
+	void mergesTheEarliestSlotsAcrossDoctors() {
+		AppointmentSlotRepository repository = mock(AppointmentSlotRepository.class);
+		when(repository.findByDoctorIdInAndBookedFalseAndStartTimeGreaterThanEqual(anyCollection(), any())).thenReturn(List.of(
+				slot("a1", "a", 0), slot("a2", "a", 90), slot("a3", "a", 120),
+				slot("b1", "b", 30), slot("b2", "b", 60),
+				slot("c1", "c", 240)));
+		SlotAvailabilityIndex index = new SlotAvailabilityIndex(repository);
+		ReflectionTestUtils.setField(index, "maxAge", Duration.ofHours(1));
+
+		List<AppointmentSlot> earliest = index.findEarliestFreeSlots(List.of("a", "b", "c"), START.plusMinutes(30), null, 4);
+
+		assertThat(earliest).extracting(AppointmentSlot::getId).containsExactly("b1", "b2", "a2", "a3");
+		// all three doctors were loaded with the one query
+		verify(repository).findByDoctorIdInAndBookedFalseAndStartTimeGreaterThanEqual(anyCollection(), any());
+	}
+
+	@Test
+	void loadsOnlySlotsThatHaveNotStarted() {
+		AppointmentSlotRepository repository = mock(AppointmentSlotRepository.class);
+		SlotAvailabilityIndex index = new SlotAvailabilityIndex(repository);
+		ReflectionTestUtils.setField(index, "maxAge", Duration.ofHours(1));
+		LocalDateTime before = LocalDateTime.now();
+
+		index.findFreeSlots("a", null, null);
+
+		ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(repository).findByDoctorIdAndBookedFalseAndStartTimeGreaterThanEqual(eq("a"), from.capture());
+		assertThat(from.getValue()).isAfterOrEqualTo(before).isBeforeOrEqualTo(LocalDateTime.now());
+	}
+
+	@Test
+	void slotsThatHaveStartedAreEvictedOnRead() {
+		AppointmentSlotRepository repository = mock(AppointmentSlotRepository.class);
+		LocalDateTime soon = LocalDateTime.now().plusNanos(Duration.ofMillis(200).toNanos());
+		AppointmentSlot starting = new AppointmentSlot(soon, soon.plusMinutes(30), false, "a");
+		starting.setId("a1");
+		when(repository.findByDoctorIdAndBookedFalseAndStartTimeGreaterThanEqual(eq("a"), any())).thenReturn(List.of(starting, slot("a2", "a", 0)));
+		SlotAvailabilityIndex index = new SlotAvailabilityIndex(repository);
+		ReflectionTestUtils.setField(index, "maxAge", Duration.ofHours(1));
+		assertThat(index.findFreeSlots("a", null, null)).extracting(AppointmentSlot::getId).containsExactly("a1", "a2");
+		String tag = index.versionTag("a", null);
+
+		await().atMost(Duration.ofSeconds(2)).until(() -> LocalDateTime.now().isAfter(soon));
+
+		assertThat(index.findFreeSlots("a", null, null)).extracting(AppointmentSlot::getId).containsExactly("a2");
+		assertThat(index.versionTag("a", null)).isNotEqualTo(tag);
+		// still one load; the started slot was dropped from the cached entry
+		verify(repository).findByDoctorIdAndBookedFalseAndStartTimeGreaterThanEqual(eq("a"), any());
+	}
+
+	private static AppointmentSlot slot(String id, String doctorId, int minutes) {
+		AppointmentSlot slot = new AppointmentSlot(START.plusMinutes(minutes), START.plusMinutes(minutes + 30), false, doctorId);
+		slot.setId(id);
+		return slot;
+	}
+}
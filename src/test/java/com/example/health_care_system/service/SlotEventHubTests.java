@@ -0,0 +1,183 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.dto.SlotEvent;
+import com.example.health_care_system.model.Doctor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlotEventHubTests {
+
+	private final DoctorService doctorService = mock(DoctorService.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+	private final SlotEventHub hub = new SlotEventHub(doctorService, new ObjectMapper(), meterRegistry) {
+		@Override
+		SseEmitter newEmitter(long timeoutMillis) {
+			RecordingEmitter emitter = new RecordingEmitter(timeoutMillis);
+			emitters.add(emitter);
+			return emitter;
+		}
+	};
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(hub, "timeout", Duration.ofMinutes(30));
+		ReflectionTestUtils.setField(hub, "maxSubscribers", 3);
+		ReflectionTestUtils.setField(hub, "dispatchThreads", 2);
+		ReflectionTestUtils.setField(hub, "queueCapacity", 100);
+		ReflectionTestUtils.setField(hub, "sendTimeout", Duration.ofMillis(50));
+		ReflectionTestUtils.setField(hub, "heartbeatBatchSize", 1);
+		hub.start();
+		when(doctorService.getDoctorById("d1")).thenReturn(new Doctor("d1", "Dr. Grey", "Cardiology", null, null, null));
+	}
+
+	@AfterEach
+	void tearDown() {
+		emitters.forEach(emitter -> emitter.blocked.countDown());
+		hub.stop();
+	}
+
+	@Test
+	void subscribeRespectsTheSubscriberLimit() {
+		assertThat(hub.subscribeToDoctor("d1")).isNotNull();
+		assertThat(hub.subscribeToDoctor("d2")).isNotNull();
+		assertThat(hub.subscribeToSpecialization("Cardiology")).isNotNull();
+
+		assertThat(hub.subscribeToDoctor("d3")).isNull();
+		assertThat(hub.getSubscriberCount()).isEqualTo(3);
+	}
+
+	@Test
+	void eventsReachOnlyTheDoctorAndSpecializationTopics() {
+		RecordingEmitter doctor = (RecordingEmitter) hub.subscribeToDoctor("d1");
+		RecordingEmitter otherDoctor = (RecordingEmitter) hub.subscribeToDoctor("d2");
+		RecordingEmitter specialization = (RecordingEmitter) hub.subscribeToSpecialization("cardiology");
+
+		hub.onSlotEvent(new SlotEvent(SlotEvent.BOOKED, "s1", "d1", null, null, null));
+
+		await().atMost(Duration.ofSeconds(2)).until(() -> doctor.sent.size() == 1 && specialization.sent.size() == 1);
+		assertThat(doctor.sent.get(0)).contains("\"slotId\":\"s1\"", "\"specialization\":\"Cardiology\"");
+		assertThat(otherDoctor.sent).isEmpty();
+	}
+
+	@Test
+	void heartbeatsAreWrittenByTheDispatchPool() {
+		List<RecordingEmitter> subscribed = List.of((RecordingEmitter) hub.subscribeToDoctor("d1"),
+				(RecordingEmitter) hub.subscribeToDoctor("d1"), (RecordingEmitter) hub.subscribeToDoctor("d2"));
+
+		hub.sendHeartbeats();
+
+		await().atMost(Duration.ofSeconds(2)).until(() -> subscribed.stream().allMatch(emitter -> emitter.sent.size() == 1));
+		assertThat(subscribed).allSatisfy(emitter -> {
+			assertThat(emitter.sent.get(0)).contains("heartbeat");
+			assertThat(emitter.writer).startsWith("slot-events-");
+		});
+	}
+
+	@Test
+	void failedWritesRemoveTheSubscriber() {
+		RecordingEmitter emitter = (RecordingEmitter) hub.subscribeToDoctor("d1");
+		emitter.fail = true;
+
+		hub.sendHeartbeats();
+
+		await().atMost(Duration.ofSeconds(2)).until(() -> hub.getSubscriberCount() == 0);
+		assertThat(emitter.failure).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void emitterTimeoutRemovesTheSubscriber() {
+		RecordingEmitter emitter = (RecordingEmitter) hub.subscribeToDoctor("d1");
+
+		emitter.timeoutCallback.run();
+
+		assertThat(hub.getSubscriberCount()).isZero();
+	}
+
+	@Test
+	void stuckWritesAreDroppedEvenWhenEveryDispatchThreadIsBlocked() throws InterruptedException {
+		RecordingEmitter first = (RecordingEmitter) hub.subscribeToDoctor("d1");
+		RecordingEmitter second = (RecordingEmitter) hub.subscribeToDoctor("d2");
+		RecordingEmitter idle = (RecordingEmitter) hub.subscribeToDoctor("d3");
+		first.block = true;
+		second.block = true;
+
+		hub.sendHeartbeats();
+		// both dispatch threads are now stuck writing to slow clients
+		assertThat(first.writing.await(2, TimeUnit.SECONDS)).isTrue();
+		assertThat(second.writing.await(2, TimeUnit.SECONDS)).isTrue();
+		Thread.sleep(100);
+		hub.sendHeartbeats();
+
+		// dropped by the calling thread without waiting for a dispatch thread
+		assertThat(hub.getSubscriberCount()).isEqualTo(1);
+		assertThat(meterRegistry.counter("slots.events.send.timeouts").count()).isEqualTo(2);
+		await().atMost(Duration.ofSeconds(2)).until(() -> first.failure != null && second.failure != null);
+		assertThat(first.failure).hasMessageContaining("timed out");
+		// the closed streams free the dispatch threads for the queued heartbeats
+		await().atMost(Duration.ofSeconds(2)).until(() -> idle.sent.size() == 2);
+	}
+
+	static class RecordingEmitter extends SseEmitter {
+
+		final List<String> sent = new CopyOnWriteArrayList<>();
+		final CountDownLatch writing = new CountDownLatch(1);
+		final CountDownLatch blocked = new CountDownLatch(1);
+		volatile boolean fail;
+		volatile boolean block;
+		volatile String writer;
+		volatile Throwable failure;
+		Runnable timeoutCallback;
+
+		RecordingEmitter(long timeout) {
+			super(timeout);
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			writer = Thread.currentThread().getName();
+			writing.countDown();
+			if (fail) {
+				throw new IOException("broken pipe");
+			}
+			if (block) {
+				try {
+					blocked.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			sent.add(builder.build().stream().map(data -> data.getData().toString()).collect(Collectors.joining()));
+		}
+
+		@Override
+		public void onTimeout(Runnable callback) {
+			timeoutCallback = callback;
+			super.onTimeout(callback);
+		}
+
+		@Override
+		public void completeWithError(Throwable ex) {
+			failure = ex;
+			blocked.countDown();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.dto.SlotGenerationReport;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.model.ScheduleTemplate;
+import com.example.health_care_system.model.ScheduleTemplate.TimeRange;
+import com.example.health_care_system.repository.ScheduleTemplateRepository;
+import com.mongodb.bulk.BulkWriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotGenerationServiceTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final ScheduleTemplateRepository templateRepository = mock(ScheduleTemplateRepository.class);
+	private final BulkOperations bulk = mock(BulkOperations.class);
+	private final IndexOperations indexOps = mock(IndexOperations.class);
+	private final SlotGenerationService service = new SlotGenerationService(mongoTemplate, templateRepository,
+			mock(SlotAvailabilityIndex.class));
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "batchSize", 1000);
+		ReflectionTestUtils.setField(service, "horizonDays", 3);
+		ReflectionTestUtils.setField(service, "maxDays", 7);
+		when(mongoTemplate.indexOps(AppointmentSlot.class)).thenReturn(indexOps);
+		when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(AppointmentSlot.class))).thenReturn(bulk);
+		when(bulk.insert(anyList())).thenReturn(bulk);
+		when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(6, 0, 0, 0, List.of(), List.of()));
+	}
+
+	@Test
+	void extendHorizonCoversTheNextHorizonDaysFromTomorrow() {
+		List<TimeRange> hours = new ArrayList<>();
+		for (DayOfWeek day : DayOfWeek.values()) {
+			hours.add(new TimeRange(day, LocalTime.of(9, 0), LocalTime.of(10, 0)));
+		}
+		when(templateRepository.streamByActiveTrue())
+				.thenReturn(Stream.of(new ScheduleTemplate("doctor-1", 30, hours, new ArrayList<>())));
+
+		SlotGenerationReport report = service.extendHorizon();
+
+		assertThat(report.getTemplates()).isEqualTo(1);
+		assertThat(report.getSlotsGenerated()).isEqualTo(6);
+		assertThat(report.getSlotsInserted()).isEqualTo(6);
+		verify(indexOps).createIndex(any());
+	}
+
+	@Test
+	void rejectsReversedOrOversizedRanges() {
+		LocalDate from = LocalDate.of(2026, 10, 19);
+
+		assertThatThrownBy(() -> service.generateSlots(from, from.minusDays(1)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> service.generateSlots(from, from.plusDays(7)))
+				.isInstanceOf(IllegalArgumentException.class);
+		verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(AppointmentSlot.class));
+	}
+}
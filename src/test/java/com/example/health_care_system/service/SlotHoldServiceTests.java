@@ -0,0 +1,73 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotHoldServiceTests {
+
+	private final AppointmentSlotRepository slotRepository = mock(AppointmentSlotRepository.class);
+	private final SlotAvailabilityIndex availabilityIndex = mock(SlotAvailabilityIndex.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SlotHoldService service = new SlotHoldService(slotRepository, mock(AppointmentService.class),
+			availabilityIndex, mock(ApplicationEventPublisher.class), meterRegistry);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "holdDuration", Duration.ofMinutes(5));
+		ReflectionTestUtils.setField(service, "tick", Duration.ofSeconds(1));
+		ReflectionTestUtils.setField(service, "wheelSize", 8);
+		ReflectionTestUtils.setField(service, "maxHoldsPerPatient", 2);
+		service.start();
+	}
+
+	@Test
+	void refusesHoldsBeyondThePerPatientLimit() {
+		when(slotRepository.countByHeldByAndHoldExpiresAtAfter(eq("p1"), any())).thenReturn(2L);
+
+		assertThatThrownBy(() -> service.placeHold("p1", "s3"))
+				.isInstanceOf(SlotHoldService.HoldLimitExceededException.class);
+
+		verify(slotRepository, never()).holdSlot(anyString(), anyString(), anyString(), any());
+		assertThat(meterRegistry.counter("slots.holds", "outcome", "limited").count()).isEqualTo(1);
+	}
+
+	@Test
+	void placesHoldsUnderTheLimit() {
+		when(slotRepository.countByHeldByAndHoldExpiresAtAfter(eq("p1"), any())).thenReturn(1L);
+		AppointmentSlot slot = new AppointmentSlot(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1), true, "d1");
+		slot.setId("s2");
+		when(slotRepository.holdSlot(eq("s2"), anyString(), eq("p1"), any())).thenReturn(slot);
+
+		assertThat(service.placeHold("p1", "s2").patientId()).isEqualTo("p1");
+		verify(availabilityIndex).markBooked(slot);
+	}
+
+	@Test
+	void onlyTheHolderCanReleaseAHold() {
+		// the repository matches heldBy, so another patient's release finds nothing
+		when(slotRepository.releaseHold("s1", "h1", "p2")).thenReturn(null);
+
+		assertThat(service.releaseHold("p2", "s1", "h1")).isFalse();
+
+		verify(slotRepository, never()).releaseHold("s1", "h1");
+		verify(availabilityIndex, never()).markFree(any());
+	}
+}
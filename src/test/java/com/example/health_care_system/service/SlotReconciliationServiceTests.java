@@ -0,0 +1,139 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.dto.ReconciliationReport;
+import com.example.health_care_system.model.Appointment;
+import com.example.health_care_system.model.AppointmentSlot;
+import com.example.health_care_system.repository.AppointmentRepository;
+import com.example.health_care_system.repository.AppointmentRepositoryCustom.SlotLink;
+import com.example.health_care_system.repository.AppointmentSlotRepository;
+import com.example.health_care_system.repository.AppointmentSlotRepositoryCustom.SlotOwner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotReconciliationServiceTests {
+
+	private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+	private final AppointmentSlotRepository slotRepository = mock(AppointmentSlotRepository.class);
+	private SlotReconciliationService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new SlotReconciliationService(appointmentRepository, slotRepository,
+				mock(SlotAvailabilityIndex.class), mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "batchSize", 10);
+		ReflectionTestUtils.setField(service, "maxBatches", 1);
+		ReflectionTestUtils.setField(service, "maxWritesPerSecond", 1000);
+		ReflectionTestUtils.setField(service, "gracePeriod", Duration.ofMinutes(10));
+		service.start();
+		when(slotRepository.releaseSlot(anyString(), anyString())).thenReturn(new AppointmentSlot());
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.stop();
+	}
+
+	@Test
+	void releasesSlotsOfCancelledAndLongMissingAppointments() {
+		String cancelled = new ObjectId().toHexString();
+		String longGone = new ObjectId(Date.from(Instant.now().minus(Duration.ofHours(1)))).toHexString();
+		String justClaimed = new ObjectId().toHexString();
+		String held = new ObjectId(Date.from(Instant.now().minus(Duration.ofHours(1)))).toHexString();
+		when(slotRepository.scanSlotOwners(isNull(), anyInt())).thenReturn(List.of(
+				new SlotOwner("s1", "d", true, false, cancelled, "CANCELLED"),
+				new SlotOwner("s2", "d", true, false, longGone, null),
+				// the appointment is probably still being inserted
+				new SlotOwner("s3", "d", true, false, justClaimed, null),
+				new SlotOwner("s4", "d", true, true, held, null),
+				new SlotOwner("s5", "d", false, false, null, null)));
+
+		ReconciliationReport report = service.reconcile();
+
+		assertThat(report.getSlotsScanned()).isEqualTo(5);
+		assertThat(report.getCancelledSlotsReleased()).isEqualTo(1);
+		assertThat(report.getOrphanedSlotsReleased()).isEqualTo(1);
+		verify(slotRepository).releaseSlot("s1", cancelled);
+		verify(slotRepository).releaseSlot("s2", longGone);
+		verify(slotRepository, never()).releaseSlot("s3", justClaimed);
+		verify(slotRepository, never()).releaseSlot("s4", held);
+	}
+
+	@Test
+	void reclaimsFreedSlotsOnlyForAppointmentsThatAreStillBooked() {
+		LocalDateTime old = LocalDateTime.now().minusHours(1);
+		when(appointmentRepository.scanSlotLinks(isNull(), anyInt())).thenReturn(List.of(
+				new SlotLink("a1", "s1", "BOOKED", old, true, false, null),
+				new SlotLink("a2", "s2", "BOOKED", old, true, false, null),
+				new SlotLink("a3", "s3", "BOOKED", old, true, true, "other"),
+				new SlotLink("a4", "s4", "BOOKED", old, false, false, null)));
+		// a2 was cancelled after the scan read it
+		when(appointmentRepository.findAllById(any())).thenReturn(List.of(
+				appointment("a1", "s1", "BOOKED"), appointment("a2", "s2", "CANCELLED")));
+		when(slotRepository.claimSlot("s1", "a1")).thenReturn(new AppointmentSlot());
+
+		ReconciliationReport report = service.reconcile();
+
+		assertThat(report.getSlotsReclaimed()).isEqualTo(1);
+		assertThat(report.getConflicts()).isEqualTo(1);
+		assertThat(report.getMissingSlots()).isEqualTo(1);
+		verify(slotRepository, never()).claimSlot("s2", "a2");
+	}
+
+	@Test
+	void submittedPassesRunInTheBackgroundOneAtATime() throws InterruptedException {
+		CountDownLatch scanning = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		Thread[] worker = new Thread[1];
+		when(slotRepository.scanSlotOwners(isNull(), anyInt())).thenAnswer(invocation -> {
+			worker[0] = Thread.currentThread();
+			scanning.countDown();
+			proceed.await();
+			return List.of();
+		});
+		when(appointmentRepository.scanSlotLinks(isNull(), anyInt())).thenReturn(List.of());
+
+		assertThat(service.submit()).isTrue();
+		assertThat(scanning.await(2, TimeUnit.SECONDS)).isTrue();
+		assertThat(service.submit()).isFalse();
+		proceed.countDown();
+
+		verify(appointmentRepository, timeout(2000)).scanSlotLinks(isNull(), anyInt());
+		assertThat(worker[0].getName()).isEqualTo("slot-reconcile");
+		// a new pass can start once the previous one has finished
+		while (!service.submit()) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static Appointment appointment(String id, String slotId, String status) {
+		Appointment appointment = new Appointment();
+		appointment.setId(id);
+		appointment.setSlotId(slotId);
+		appointment.setStatus(status);
+		return appointment;
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.health_care_system.service;
+
+import com.example.health_care_system.dto.ChangePasswordDto;
+import com.example.health_care_system.dto.UserProfileDto;
+import com.example.health_care_system.model.User;
+import com.example.health_care_system.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceTests {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+	private final UserService userService = new UserService();
+
+	// what the repository holds; every read returns a fresh copy, like a real store
+	private User stored;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+		ReflectionTestUtils.setField(userService, "passwordEncoder", passwordEncoder);
+		ReflectionTestUtils.setField(userService, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(userService, "cacheMaxSize", 100);
+		ReflectionTestUtils.setField(userService, "cacheTtl", Duration.ofMinutes(5));
+		userService.initCaches();
+
+		stored = new User("alice", "alice@example.com", "old-hash", "Alice", "Liddell");
+		stored.setId("u1");
+		when(userRepository.findById("u1")).thenAnswer(invocation -> Optional.of(copy(stored)));
+		when(userRepository.findByUsername(anyString())).thenAnswer(invocation ->
+				Optional.of(stored).filter(user -> user.getUsername().equals(invocation.getArgument(0))).map(UserServiceTests::copy));
+		when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+			stored = copy(invocation.getArgument(0));
+			return invocation.getArgument(0);
+		});
+		when(passwordEncoder.matches("current", "old-hash")).thenReturn(true);
+		when(passwordEncoder.encode("changed")).thenReturn("new-hash");
+	}
+
+	@Test
+	void profileUpdateEvictsTheCachedUser() throws Exception {
+		assertThat(userService.findById("u1").getFirstName()).isEqualTo("Alice");
+		assertThat(userService.findByUsername("alice")).isNotNull();
+
+		userService.updateUserProfile("u1", new UserProfileDto("alicia", "alice@example.com", "Alicia", "Liddell"));
+
+		assertThat(userService.findById("u1").getFirstName()).isEqualTo("Alicia");
+		assertThat(userService.findByUsername("alice")).isNull();
+		assertThat(userService.findByUsername("alicia").getId()).isEqualTo("u1");
+	}
+
+	@Test
+	void passwordChangeEvictsTheCachedUser() throws Exception {
+		assertThat(userService.findByUsername("alice").getPassword()).isEqualTo("old-hash");
+
+		userService.changePassword("u1", new ChangePasswordDto("current", "changed", "changed"));
+
+		assertThat(userService.findByUsername("alice").getPassword()).isEqualTo("new-hash");
+		assertThat(userService.findById("u1").getPassword()).isEqualTo("new-hash");
+	}
+
+	private static User copy(User user) {
+		User copy = new User(user.getUsername(), user.getEmail(), user.getPassword(), user.getFirstName(), user.getLastName());
+		copy.setId(user.getId());
+		return copy;
+	}
+}